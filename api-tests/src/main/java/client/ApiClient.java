@@ -0,0 +1,155 @@
+package client;
+
+import benefits.BenefitsEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import consistency.ConsistencyBudgets;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Non-blocking client for the Benefits Dashboard API. Every call returns immediately with a future,
+// and all calls share one HttpClient so connections (and HTTP/2 streams) are reused.
+// With a CassetteStore the calls are recorded, replayed offline or checked for drift (see api.cassette).
+public class ApiClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration timeout;
+    private final CassetteStore cassettes;
+
+    public ApiClient(String baseUrl, String username, String password, Duration timeout) {
+        this(baseUrl, username, password, timeout, CassetteStore.off());
+    }
+
+    public ApiClient(String baseUrl, String username, String password, Duration timeout, CassetteStore cassettes) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.timeout = timeout;
+        this.cassettes = cassettes;
+    }
+
+    public static ApiClient fromSystemProperties() {
+        return new ApiClient(
+                System.getProperty("base.url", "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod"),
+                System.getProperty("test.username", "TestUser773"),
+                System.getProperty("test.password", "6q0]l$BKOUb!"),
+                Duration.ofSeconds(Long.getLong("api.timeout", 30)),
+                CassetteStore.fromSystemProperties());
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public CompletableFuture<ApiResponse> get(String path) {
+        return send("GET", path, null);
+    }
+
+    // Read-after-write: repeats the GET until it answers with the status or the budget (see ConsistencyBudgets)
+    // runs out, and completes with the last response either way. A zero budget is a single GET.
+    public CompletableFuture<ApiResponse> getUntil(String path, int status, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        return pollUntil(path, status, deadline, ConsistencyBudgets.measured().pollInterval().toMillis());
+    }
+
+    private CompletableFuture<ApiResponse> pollUntil(String path, int status, long deadline, long intervalMillis) {
+        return get(path).thenCompose(response -> {
+            if (response.statusCode() == status || System.nanoTime() - deadline >= 0) {
+                return CompletableFuture.completedFuture(response);
+            }
+            // Waits without holding a thread
+            return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(intervalMillis, TimeUnit.MILLISECONDS))
+                    .thenCompose(next -> pollUntil(path, status, deadline, intervalMillis));
+        });
+    }
+
+    public CompletableFuture<ApiResponse> post(String path, Object body) {
+        return send("POST", path, json(body));
+    }
+
+    public CompletableFuture<ApiResponse> put(String path, Object body) {
+        return send("PUT", path, json(body));
+    }
+
+    public CompletableFuture<ApiResponse> delete(String path) {
+        return send("DELETE", path, null);
+    }
+
+    // Completes as soon as the headers arrive; the employees are validated while the body downloads
+    public CompletableFuture<EmployeeStream> getEmployeeStream(String path) {
+        CassetteStore.Exchange exchange = cassettes.exchange("GET", path, null);
+        switch (cassettes.mode()) {
+            case REPLAY:
+                try {
+                    Cassette.Interaction recorded = exchange.replay();
+                    return CompletableFuture.completedFuture(
+                            new EmployeeStream(path, recorded.status, recorded.bodyStream(), BenefitsEngine.STANDARD));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            case RECORD:
+                // Still streamed; the cassette gets a copy of the body as it is read
+                long started = System.nanoTime();
+                return client.sendAsync(request("GET", path, null), HttpResponse.BodyHandlers.ofInputStream())
+                        .thenApply(response -> new EmployeeStream(path, response.statusCode(),
+                                exchange.tee(response.statusCode(), response.body(), started), BenefitsEngine.STANDARD));
+            default:
+                // verify: GETs of the same path through get() are the ones checked for drift
+                return client.sendAsync(request("GET", path, null), HttpResponse.BodyHandlers.ofInputStream())
+                        .thenApply(response -> new EmployeeStream(path, response.statusCode(), response.body(), BenefitsEngine.STANDARD));
+        }
+    }
+
+    private CompletableFuture<ApiResponse> send(String method, String path, String body) {
+        long started = System.nanoTime();
+        CassetteStore.Exchange exchange = cassettes.exchange(method, path, body);
+        if (cassettes.isReplaying()) {
+            try {
+                Cassette.Interaction recorded = exchange.replay();
+                return CompletableFuture.completedFuture(new ApiResponse(method, path, recorded.status, recorded.body(),
+                        Duration.ofNanos(System.nanoTime() - started)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return client.sendAsync(request(method, path, body), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    long elapsed = System.nanoTime() - started;
+                    exchange.completed(response.statusCode(), response.body().getBytes(StandardCharsets.UTF_8), elapsed);
+                    return new ApiResponse(method, path, response.statusCode(), response.body(), Duration.ofNanos(elapsed));
+                });
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String json(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body " + body, e);
+        }
+    }
+}
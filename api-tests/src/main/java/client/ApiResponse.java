@@ -0,0 +1,74 @@
+package client;
+
+import benefits.PayrollBatch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// Status, body and timing of one completed request
+public class ApiResponse {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String method;
+    private final String path;
+    private final int statusCode;
+    private final String body;
+    private final Duration elapsed;
+    private JsonNode json;
+
+    ApiResponse(String method, String path, int statusCode, String body, Duration elapsed) {
+        this.method = method;
+        this.path = path;
+        this.statusCode = statusCode;
+        this.body = body;
+        this.elapsed = elapsed;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public String body() {
+        return body;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public synchronized JsonNode json() {
+        if (json == null) {
+            try {
+                json = MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(this + " did not return JSON: " + body, e);
+            }
+        }
+        return json;
+    }
+
+    // The employee (object) or employees (array) in the body, in the form BenefitsEngine verifies
+    public PayrollBatch payroll() {
+        JsonNode json = json();
+        PayrollBatch batch = new PayrollBatch(json.isArray() ? json.size() : 1);
+        for (JsonNode employee : json.isArray() ? json : List.of(json)) {
+            batch.add(employee.path("id").asText(null), employee.path("dependants").asInt(-1),
+                    cents(employee.get("salary")), cents(employee.get("gross")),
+                    cents(employee.get("benefitsCost")), cents(employee.get("net")));
+        }
+        return batch;
+    }
+
+    private static long cents(JsonNode value) {
+        return value != null && value.isNumber() ? PayrollBatch.cents(value.doubleValue()) : PayrollBatch.NOT_REPORTED;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " -> " + statusCode + " in " + elapsed.toMillis() + " ms";
+    }
+}
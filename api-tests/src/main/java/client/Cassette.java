@@ -0,0 +1,224 @@
+package client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+// On-disk store of recorded interactions, read through a memory-mapped buffer so a lookup is a binary
+// search over the index and a body is only decoded when a response is actually replayed.
+//
+//   header  magic "CAS1", entry count (int), index offset (long), recorded at (epoch ms, long)
+//   entries key length (int), key (UTF-8), status (int), elapsed nanos (long), body length (int), body
+//   index   entry count x [FNV-1a hash of the key (long), entry offset (long)], sorted by hash and then
+//           recording order, so repeated requests replay in the order they were recorded
+//
+// Files are limited to 2 GB, the size of one mapped buffer.
+final class Cassette {
+    private static final int MAGIC = 0x43415331;
+    private static final int HEADER_BYTES = 24;
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexOffset;
+
+    private Cassette(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException(file + " is not a cassette");
+        }
+        this.count = buffer.getInt(4);
+        this.indexOffset = Math.toIntExact(buffer.getLong(8));
+    }
+
+    static Cassette open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new Cassette(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open cassette " + file, e);
+        }
+    }
+
+    // Writes to a temporary file first, so a reader never maps a half-written cassette
+    static void write(Path file, List<Interaction> interactions) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        long[][] index = new long[interactions.size()][];
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long offset = HEADER_BYTES;
+            List<byte[]> entries = new ArrayList<>(interactions.size());
+            for (int i = 0; i < interactions.size(); i++) {
+                byte[] entry = encode(interactions.get(i));
+                index[i] = new long[]{hash(interactions.get(i).key), offset, i};
+                entries.add(entry);
+                offset += entry.length;
+            }
+            header.putInt(MAGIC).putInt(interactions.size()).putLong(offset).putLong(System.currentTimeMillis());
+            out.write(header.array());
+            for (byte[] entry : entries) {
+                out.write(entry);
+            }
+            Arrays.sort(index, Comparator.<long[]>comparingLong(row -> row[0]).thenComparingLong(row -> row[2]));
+            ByteBuffer indexBytes = ByteBuffer.allocate(index.length * INDEX_ENTRY_BYTES);
+            for (long[] row : index) {
+                indexBytes.putLong(row[0]).putLong(row[1]);
+            }
+            out.write(indexBytes.array());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The occurrence-th recording of the key (0-based); past the last one the last recording is repeated
+    Interaction find(String key, int occurrence) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(key);
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compare(buffer.getLong(indexOffset + middle * INDEX_ENTRY_BYTES), hash) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        Interaction match = null;
+        int seen = 0;
+        for (int i = low; i < count && buffer.getLong(indexOffset + i * INDEX_ENTRY_BYTES) == hash; i++) {
+            int offset = Math.toIntExact(buffer.getLong(indexOffset + i * INDEX_ENTRY_BYTES + 8));
+            if (keyEquals(offset, keyBytes)) {
+                match = read(offset);
+                if (seen++ == occurrence) {
+                    break;
+                }
+            }
+        }
+        return match;
+    }
+
+    // Every interaction in recording order
+    void forEach(Consumer<Interaction> action) {
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < count; i++) {
+            Interaction interaction = read(offset);
+            action.accept(interaction);
+            offset += 4 + buffer.getInt(offset) + 4 + 8 + 4 + interaction.bodyLength;
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        if (buffer.getInt(offset) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(offset + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Interaction read(int offset) {
+        int keyLength = buffer.getInt(offset);
+        int position = offset + 4;
+        String key = StandardCharsets.UTF_8.decode(buffer.slice(position, keyLength)).toString();
+        position += keyLength;
+        int status = buffer.getInt(position);
+        long elapsedNanos = buffer.getLong(position + 4);
+        int bodyLength = buffer.getInt(position + 12);
+        return new Interaction(key, status, elapsedNanos, buffer.slice(position + 16, bodyLength));
+    }
+
+    private static byte[] encode(Interaction interaction) {
+        byte[] key = interaction.key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = interaction.body.duplicate();
+        ByteBuffer entry = ByteBuffer.allocate(4 + key.length + 4 + 8 + 4 + body.remaining());
+        entry.putInt(key.length).put(key).putInt(interaction.status).putLong(interaction.elapsedNanos)
+                .putInt(body.remaining()).put(body);
+        return entry.array();
+    }
+
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // One request/response pair; the body is a read-only view of the mapped file when replaying
+    static final class Interaction {
+        final String key;
+        final int status;
+        final long elapsedNanos;
+        private final ByteBuffer body;
+        private final int bodyLength;
+
+        Interaction(String key, int status, long elapsedNanos, ByteBuffer body) {
+            this.key = key;
+            this.status = status;
+            this.elapsedNanos = elapsedNanos;
+            this.body = body.asReadOnlyBuffer();
+            this.bodyLength = body.remaining();
+        }
+
+        String body() {
+            return StandardCharsets.UTF_8.decode(body.duplicate()).toString();
+        }
+
+        // Streams straight from the mapping, without copying the body first
+        InputStream bodyStream() {
+            ByteBuffer source = body.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return source.hasRemaining() ? source.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    if (!source.hasRemaining()) {
+                        return -1;
+                    }
+                    int read = Math.min(length, source.remaining());
+                    source.get(bytes, offset, read);
+                    return read;
+                }
+
+                @Override
+                public int available() {
+                    return source.remaining();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Record/replay of the API suite's HTTP traffic, selected with api.cassette:
+//   record  calls the live API and writes every request/response pair to api.cassette.file at JVM exit
+//   replay  answers from the cassette without any network access; an unrecorded request fails
+//   verify  calls the live API and fails a request whose status or JSON shape (field names and value types)
+//           drifted from the recording; drifts are also written to api.cassette.report
+// Requests match on method, path (query parameters sorted) and body, with JSON bodies normalized (keys sorted,
+// whitespace dropped). Repeated identical requests replay their recordings in order. verify also ignores ids
+// in paths and bodies, since the live API hands out new ones.
+public final class CassetteStore {
+    public enum Mode { OFF, RECORD, REPLAY, VERIFY }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private static final String ID_SEGMENT = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+";
+
+    private static final CassetteStore OFF = new CassetteStore(Mode.OFF, null, null);
+    private static volatile CassetteStore configured;
+
+    private final Mode mode;
+    private final Path file;
+    private final Path report;
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Queue<Recording> recordings = new ConcurrentLinkedQueue<>();
+    private final Queue<Map<String, Object>> drifts = new ConcurrentLinkedQueue<>();
+    private Cassette cassette;
+    // verify: recordings by id-free key
+    private Map<String, List<Cassette.Interaction>> byTemplate;
+
+    private CassetteStore(Mode mode, Path file, Path report) {
+        this.mode = mode;
+        this.file = file;
+        this.report = report;
+    }
+
+    public static CassetteStore off() {
+        return OFF;
+    }
+
+    // One store per JVM, so every client records into (or replays from) the same cassette
+    public static CassetteStore fromSystemProperties() {
+        CassetteStore store = configured;
+        if (store == null) {
+            synchronized (CassetteStore.class) {
+                store = configured;
+                if (store == null) {
+                    store = create(Mode.valueOf(System.getProperty("api.cassette", "off").trim().toUpperCase()),
+                            Paths.get(System.getProperty("api.cassette.file", "cassettes/employees.cassette")),
+                            Paths.get(System.getProperty("api.cassette.report", "build/cassette-drift.json")));
+                    configured = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    static CassetteStore create(Mode mode, Path file, Path report) {
+        CassetteStore store = open(mode, file, report);
+        if (mode == Mode.RECORD || mode == Mode.VERIFY) {
+            Runtime.getRuntime().addShutdownHook(new Thread(store::write, "api-cassette-" + mode.name().toLowerCase()));
+        }
+        return store;
+    }
+
+    // Without the shutdown hook; the recording or drift report is written by write()
+    static CassetteStore open(Mode mode, Path file, Path report) {
+        if (mode == Mode.OFF) {
+            return OFF;
+        }
+        CassetteStore store = new CassetteStore(mode, file, report);
+        if (mode == Mode.REPLAY || mode == Mode.VERIFY) {
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("api.cassette=" + mode.name().toLowerCase() + " needs a recording: " + file.toAbsolutePath()
+                        + " does not exist (record one with -Papi.cassette=record)");
+            }
+            store.cassette = Cassette.open(file);
+        }
+        if (mode == Mode.VERIFY) {
+            store.byTemplate = new HashMap<>();
+            store.cassette.forEach(interaction -> store.byTemplate
+                    .computeIfAbsent(template(interaction.key), key -> new ArrayList<>()).add(interaction));
+        }
+        return store;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    // Call when the request is sent: the order of identical requests is the order they were sent in
+    Exchange exchange(String method, String path, String body) {
+        if (mode == Mode.OFF) {
+            return new Exchange(null, 0, 0);
+        }
+        String key = key(method, path, body);
+        int occurrence = occurrences.computeIfAbsent(mode == Mode.VERIFY ? template(key) : key, k -> new AtomicInteger())
+                .getAndIncrement();
+        return new Exchange(key, occurrence, sequence.getAndIncrement());
+    }
+
+    final class Exchange {
+        private final String key;
+        private final int occurrence;
+        private final int sequence;
+
+        private Exchange(String key, int occurrence, int sequence) {
+            this.key = key;
+            this.occurrence = occurrence;
+            this.sequence = sequence;
+        }
+
+        // replay: the recorded response
+        Cassette.Interaction replay() {
+            Cassette.Interaction interaction = cassette.find(key, occurrence);
+            if (interaction == null) {
+                throw new IllegalStateException("No recording in " + cassette + " for " + key.replace('\n', ' '));
+            }
+            return interaction;
+        }
+
+        // record: keeps the pair; verify: throws when the live response drifted from the recording
+        void completed(int status, byte[] body, long elapsedNanos) {
+            if (mode == Mode.RECORD) {
+                recordings.add(new Recording(sequence,
+                        new Cassette.Interaction(key, status, elapsedNanos, ByteBuffer.wrap(body))));
+            } else if (mode == Mode.VERIFY) {
+                verify(key, occurrence, status, new String(body, StandardCharsets.UTF_8));
+            }
+        }
+
+        // record: hands the body to the reader as it downloads and keeps a copy, recorded once the body was
+        // read to the end or closed; a reader that stops early (findFirst) still gets the whole body recorded
+        InputStream tee(int status, InputStream body, long startedNanos) {
+            return new FilterInputStream(body) {
+                private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+                private boolean recorded;
+
+                @Override
+                public int read() throws IOException {
+                    int read = super.read();
+                    if (read < 0) {
+                        record();
+                    } else {
+                        copy.write(read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    int read = super.read(bytes, offset, length);
+                    if (read < 0) {
+                        record();
+                    } else {
+                        copy.write(bytes, offset, read);
+                    }
+                    return read;
+                }
+
+                // Read rather than skipped, so the copy stays complete
+                @Override
+                public long skip(long count) throws IOException {
+                    return Math.max(0, read(new byte[(int) Math.max(0, Math.min(count, 8192))]));
+                }
+
+                @Override
+                public boolean markSupported() {
+                    return false;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        if (!recorded) {
+                            in.transferTo(copy);
+                            record();
+                        }
+                    } finally {
+                        super.close();
+                    }
+                }
+
+                private void record() {
+                    if (!recorded) {
+                        recorded = true;
+                        completed(status, copy.toByteArray(), System.nanoTime() - startedNanos);
+                    }
+                }
+            };
+        }
+    }
+
+    private void verify(String key, int occurrence, int status, String body) {
+        List<Cassette.Interaction> recorded = byTemplate.get(template(key));
+        if (recorded == null) {
+            drift(key, "not in the recording", null, null);
+            return;
+        }
+        Cassette.Interaction interaction = recorded.get(Math.min(occurrence, recorded.size() - 1));
+        if (interaction.status != status) {
+            drift(key, "status", interaction.status, status);
+        }
+        String expected = shape(interaction.body());
+        String actual = shape(body);
+        if (!expected.equals(actual)) {
+            drift(key, "shape", expected, actual);
+        }
+    }
+
+    private void drift(String key, String kind, Object recorded, Object live) {
+        Map<String, Object> drift = new LinkedHashMap<>();
+        drift.put("request", key.replace('\n', ' '));
+        drift.put("drift", kind);
+        drift.put("recorded", recorded);
+        drift.put("live", live);
+        drifts.add(drift);
+        throw new IllegalStateException("API drifted from " + cassette + ": " + drift);
+    }
+
+    void write() {
+        try {
+            if (mode == Mode.RECORD) {
+                List<Recording> ordered = new ArrayList<>(recordings);
+                ordered.sort(Comparator.comparingInt(recording -> recording.sequence));
+                Cassette.write(file, ordered.stream().map(recording -> recording.interaction).collect(Collectors.toList()));
+                System.out.println("Recorded " + ordered.size() + " API interactions in " + file.toAbsolutePath());
+            } else if (!drifts.isEmpty()) {
+                Files.createDirectories(report.toAbsolutePath().getParent());
+                Files.write(report, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(new ArrayList<>(drifts)));
+                System.err.println(drifts.size() + " API responses drifted from " + file + ", see " + report.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write " + (mode == Mode.RECORD ? file : report) + ": " + e.getMessage());
+        }
+    }
+
+    // "POST /Api/Employees\n{"dependants":0,"firstName":"Oscar","lastName":"Test"}"
+    static String key(String method, String path, String body) {
+        return method.toUpperCase() + " " + normalizePath(path) + "\n" + normalizeBody(body);
+    }
+
+    private static String normalizePath(String path) {
+        int query = path.indexOf('?');
+        if (query < 0) {
+            return path;
+        }
+        String[] parameters = path.substring(query + 1).split("&");
+        Arrays.sort(parameters);
+        return path.substring(0, query) + "?" + String.join("&", parameters);
+    }
+
+    private static String normalizeBody(String body) {
+        if (body == null || body.isBlank()) {
+            return "";
+        }
+        try {
+            // Re-serialized through maps so keys come out sorted at every level
+            return MAPPER.writeValueAsString(MAPPER.readValue(body, Object.class));
+        } catch (IOException e) {
+            return body.trim();
+        }
+    }
+
+    // The key with ids left out of the path and the body
+    static String template(String key) {
+        int newline = key.indexOf('\n');
+        String request = key.substring(0, newline).replaceAll("/(" + ID_SEGMENT + ")(?=/|\\?|$)", "/{id}");
+        String body = key.substring(newline + 1);
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            if (json instanceof ObjectNode) {
+                ((ObjectNode) json).remove("id");
+                body = MAPPER.writeValueAsString(MAPPER.treeToValue(json, Object.class));
+            }
+        } catch (IOException e) {
+            // Not JSON, compared as is
+        }
+        return request + "\n" + body;
+    }
+
+    // Field names and value types; arrays contribute the union of their elements, nulls only mark a field as present
+    static String shape(String body) {
+        try {
+            return body == null || body.isBlank() ? "empty" : shape(MAPPER.readTree(body));
+        } catch (IOException e) {
+            return "text";
+        }
+    }
+
+    private static String shape(JsonNode node) {
+        if (node.isObject()) {
+            Map<String, Set<String>> fields = new TreeMap<>();
+            collect(node, fields);
+            return describe(fields);
+        }
+        if (node.isArray()) {
+            Map<String, Set<String>> fields = new TreeMap<>();
+            Set<String> scalars = new TreeSet<>();
+            for (JsonNode element : node) {
+                if (element.isObject()) {
+                    collect(element, fields);
+                } else {
+                    scalars.add(shape(element));
+                }
+            }
+            if (!fields.isEmpty()) {
+                scalars.add(describe(fields));
+            }
+            return "[" + String.join("|", scalars) + "]";
+        }
+        return node.getNodeType().name().toLowerCase();
+    }
+
+    private static void collect(JsonNode object, Map<String, Set<String>> fields) {
+        object.fields().forEachRemaining(field -> {
+            Set<String> types = fields.computeIfAbsent(field.getKey(), key -> new TreeSet<>());
+            if (!field.getValue().isNull()) {
+                types.add(shape(field.getValue()));
+            }
+        });
+    }
+
+    private static String describe(Map<String, Set<String>> fields) {
+        return fields.entrySet().stream()
+                .map(field -> field.getKey() + ":" + String.join("|", field.getValue()))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static final class Recording {
+        final int sequence;
+        final Cassette.Interaction interaction;
+
+        Recording(int sequence, Cassette.Interaction interaction) {
+            this.sequence = sequence;
+            this.interaction = interaction;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of validating one employee from a streamed GET /Api/Employees response
+public final class EmployeeCheck {
+    private final int index;
+    private final String id;
+    private final List<String> missingFields;
+    private final List<String> benefitProblems;
+
+    EmployeeCheck(int index, String id, List<String> missingFields, List<String> benefitProblems) {
+        this.index = index;
+        this.id = id;
+        this.missingFields = missingFields;
+        this.benefitProblems = benefitProblems;
+    }
+
+    // Position in the response array
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean hasRequiredFields() {
+        return missingFields.isEmpty();
+    }
+
+    public boolean hasCorrectBenefits() {
+        return benefitProblems.isEmpty();
+    }
+
+    public boolean isValid() {
+        return hasRequiredFields() && hasCorrectBenefits();
+    }
+
+    public List<String> getMissingFields() {
+        return missingFields;
+    }
+
+    public List<String> getBenefitProblems() {
+        return benefitProblems;
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "employee #" + index + " (" + id + ") is valid";
+        }
+        List<String> problems = new ArrayList<>(benefitProblems);
+        missingFields.forEach(field -> problems.add("missing " + field));
+        return "employee #" + index + " (" + id + "): " + String.join("; ", problems);
+    }
+}
@@ -0,0 +1,214 @@
+package client;
+
+import benefits.BenefitsEngine;
+import benefits.PayrollBatch;
+import benefits.Verification;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// A GET /Api/Employees response read while it downloads. checks() walks the array one employee at a time,
+// validating required fields and benefits as each record arrives, so memory does not grow with the
+// response and a short-circuiting consumer (findFirst, anyMatch) stops reading - and closes the
+// connection - at the first match.
+public final class EmployeeStream implements AutoCloseable {
+    public static final String[] REQUIRED_FIELDS = {"id", "firstName", "lastName", "dependants", "salary", "benefitsCost", "net"};
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String path;
+    private final int statusCode;
+    private final InputStream body;
+    private final BenefitsEngine engine;
+
+    EmployeeStream(String path, int statusCode, InputStream body, BenefitsEngine engine) {
+        this.path = path;
+        this.statusCode = statusCode;
+        this.body = body;
+        this.engine = engine;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    // One check per employee, in response order; can be consumed once. Closing the stream closes the response.
+    public Stream<EmployeeCheck> checks() {
+        if (statusCode != 200) {
+            close();
+            throw new IllegalStateException("GET " + path + " returned " + statusCode);
+        }
+        try {
+            JsonParser parser = JSON.createParser(body);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                close();
+                throw new IllegalStateException("GET " + path + " did not return a JSON array");
+            }
+            Spliterator<EmployeeCheck> spliterator = Spliterators.spliteratorUnknownSize(new Reader(parser),
+                    Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false).onClose(this::close);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Could not read GET " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // The response is abandoned either way
+        }
+    }
+
+    private final class Reader implements Iterator<EmployeeCheck> {
+        private final JsonParser parser;
+        // Refilled for every employee so the engine check does not allocate a batch per record
+        private final PayrollBatch record = new PayrollBatch(1);
+        private EmployeeCheck next;
+        private int index;
+        private boolean done;
+
+        Reader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read employee #" + index + " of GET " + path, e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public EmployeeCheck next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            EmployeeCheck check = next;
+            next = null;
+            return check;
+        }
+
+        private EmployeeCheck read() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                done = true;
+                return null;
+            }
+            int position = index++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new EmployeeCheck(position, null, List.of(REQUIRED_FIELDS), List.of("not a JSON object"));
+            }
+
+            String id = null;
+            int present = 0;
+            int dependants = -1;
+            long salary = PayrollBatch.NOT_REPORTED;
+            long gross = PayrollBatch.NOT_REPORTED;
+            long benefitsCost = PayrollBatch.NOT_REPORTED;
+            long net = PayrollBatch.NOT_REPORTED;
+            List<String> missing = null;
+            List<String> problems = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                int required = requiredIndex(field);
+                if (required >= 0 && value != JsonToken.VALUE_NULL) {
+                    present |= 1 << required;
+                }
+                switch (field) {
+                    case "id":
+                        id = parser.getValueAsString();
+                        parser.skipChildren();
+                        break;
+                    case "dependants":
+                        dependants = value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT
+                                ? parser.getIntValue() : -1;
+                        parser.skipChildren();
+                        break;
+                    case "salary":
+                        salary = cents(value);
+                        break;
+                    case "gross":
+                        gross = cents(value);
+                        break;
+                    case "benefitsCost":
+                        benefitsCost = cents(value);
+                        break;
+                    case "net":
+                        net = cents(value);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            for (int i = 0; i < REQUIRED_FIELDS.length; i++) {
+                if ((present & 1 << i) == 0) {
+                    missing = add(missing, REQUIRED_FIELDS[i]);
+                }
+            }
+            if (dependants >= 0) {
+                record.clear();
+                record.add(id, dependants, salary, gross, benefitsCost, net);
+                // Only the first value that is off, so a correct record allocates nothing for the check
+                Verification.Mismatch mismatch = engine.firstMismatch(record, 0);
+                if (mismatch != null) {
+                    problems = add(problems, mismatch.toString());
+                }
+            } else if ((present & 1 << requiredIndex("dependants")) != 0) {
+                problems = add(problems, "benefits not checked: dependants is not a non-negative integer");
+            } else {
+                // Without a dependant count the benefits cannot be verified, which is a failure rather than a pass
+                problems = add(problems, "benefits not checked: dependants is missing");
+            }
+            return new EmployeeCheck(position, id, missing == null ? List.of() : missing, problems == null ? List.of() : problems);
+        }
+
+        // An object or array in place of an amount is skipped so the next field is read from the right place
+        private long cents(JsonToken value) throws IOException {
+            if (value != null && value.isNumeric()) {
+                return PayrollBatch.cents(parser.getDoubleValue());
+            }
+            parser.skipChildren();
+            return PayrollBatch.NOT_REPORTED;
+        }
+    }
+
+    private static int requiredIndex(String field) {
+        for (int i = 0; i < REQUIRED_FIELDS.length; i++) {
+            if (REQUIRED_FIELDS[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Lists are only created for failing employees
+    private static List<String> add(List<String> list, String entry) {
+        List<String> result = list == null ? new ArrayList<>() : list;
+        result.add(entry);
+        return result;
+    }
+}
@@ -0,0 +1,368 @@
+package load;
+
+import client.ApiClient;
+import client.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import consistency.ConsistencyBudgets;
+import namespace.TestNamespace;
+import stub.StubServer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Read-after-write lag of /Api/Employees: how long after a POST or DELETE is acknowledged the employee shows
+// up in (or disappears from) GET /Api/Employees/{id} and GET /Api/Employees. consistency.concurrency writers
+// create and delete consistency.writes employees while reads poll every consistency.pollMillis; only reads
+// sent after the acknowledgement count, and a lag ends when the first read that saw the new state was sent.
+// The lag distributions are written as JSON and .hgrm files next to consistency.output, and budgets
+// (p99 x consistency.factor) to consistency.budgets, which both test suites read through ConsistencyBudgets
+// to decide how long to wait for a write to become visible. A create or delete that fails is counted,
+// reported as a failure rate and skipped; the other writers carry on. Employees are named through
+// TestNamespace, so the ones a killed probe never deleted are swept up by the UI suite's OrphanJanitor.
+public class ConsistencyProbe {
+    private static final String[] KEYS = {
+            ConsistencyBudgets.CREATE_ITEM, ConsistencyBudgets.CREATE_LIST,
+            ConsistencyBudgets.DELETE_ITEM, ConsistencyBudgets.DELETE_LIST};
+
+    private final ApiClient api;
+    private final int writes;
+    private final int concurrency;
+    private final long pollNanos;
+    private final long timeoutNanos;
+    private final Map<String, LatencyStats> stats = new LinkedHashMap<>();
+    // List reads wait here until a poll sent after their write shows the expected state
+    private final Map<String, ListWatch> watches = new ConcurrentHashMap<>();
+    private final Set<String> leftovers = ConcurrentHashMap.newKeySet();
+    private final WriteOutcomes creates = new WriteOutcomes("Create");
+    private final WriteOutcomes deletes = new WriteOutcomes("Delete");
+
+    public ConsistencyProbe(ApiClient api, int writes, int concurrency, Duration poll, Duration timeout) {
+        this.api = api;
+        this.writes = writes;
+        this.concurrency = concurrency;
+        this.pollNanos = poll.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        for (String key : KEYS) {
+            stats.put(key, new LatencyStats());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int writes = Integer.getInteger("consistency.writes", 40);
+        int concurrency = Integer.getInteger("consistency.concurrency", 8);
+        Duration poll = Duration.ofMillis(Long.getLong("consistency.pollMillis", 25));
+        Duration timeout = Duration.ofSeconds(Long.getLong("consistency.timeoutSeconds", 30));
+        double factor = Double.parseDouble(System.getProperty("consistency.factor", "1.5"));
+        Path output = Paths.get(System.getProperty("consistency.output", "build/consistency/results.json"));
+        Path budgets = Paths.get(System.getProperty("consistency.budgets", "../consistency-budgets.properties"));
+
+        StubServer stub = Boolean.getBoolean("stub.server") ? StubServer.start() : null;
+        if (stub != null) {
+            System.setProperty("base.url", stub.getBaseUrl());
+        }
+        ApiClient api = ApiClient.fromSystemProperties();
+        System.out.println("Consistency probe against " + api.getBaseUrl() + ": " + writes + " writes, "
+                + concurrency + " at a time, polling every " + poll.toMillis() + " ms");
+
+        ConsistencyProbe probe = new ConsistencyProbe(api, writes, concurrency, poll, timeout);
+        double seconds;
+        try {
+            long started = System.nanoTime();
+            probe.run();
+            seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Map<String, Object> results = probe.results(seconds, factor);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        for (Map.Entry<String, LatencyStats> lag : probe.stats.entrySet()) {
+            lag.getValue().writeDistribution(output.resolveSibling(lag.getKey() + ".hgrm"));
+        }
+        System.out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(results.get("lag")));
+        System.out.println("Failed writes: " + probe.creates + ", " + probe.deletes);
+        if (probe.creates.succeeded() == 0) {
+            // Empty histograms would become zero budgets
+            throw new IllegalStateException("No create succeeded against " + api.getBaseUrl() + ", budgets not written");
+        }
+        probe.writeBudgets(budgets, factor, poll);
+        System.out.println("Results written to " + output.toAbsolutePath() + ", budgets to " + budgets.toAbsolutePath());
+    }
+
+    public void run() {
+        AtomicBoolean polling = new AtomicBoolean(true);
+        Thread lister = new Thread(() -> pollList(polling), "consistency-list-poller");
+        lister.setDaemon(true);
+        lister.start();
+        ExecutorService writers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "consistency-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> probes = new ArrayList<>();
+            for (int i = 0; i < writes; i++) {
+                probes.add(CompletableFuture.runAsync(this::probeOne, writers));
+            }
+            CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            polling.set(false);
+            writers.shutdownNow();
+            cleanUp();
+        }
+    }
+
+    // One employee: created, seen by both reads, deleted, gone from both reads. Stops at a failed write.
+    private void probeOne() {
+        ApiResponse created = join(api.post(Endpoint.EMPLOYEES, draft()));
+        long acknowledged = System.nanoTime();
+        String id = createdId(created);
+        if (!creates.record(created, !id.isEmpty())) {
+            return;
+        }
+        leftovers.add(id);
+        CompletableFuture<Long> listed = watchList(id, true, acknowledged);
+        record(ConsistencyBudgets.CREATE_ITEM, acknowledged, pollItem(id, 200, acknowledged));
+        record(ConsistencyBudgets.CREATE_LIST, acknowledged, await(listed, id));
+
+        ApiResponse deleted = join(api.delete(Endpoint.EMPLOYEES + "/" + id));
+        acknowledged = System.nanoTime();
+        if (!deletes.record(deleted, deleted != null && deleted.statusCode() / 100 == 2)) {
+            // Left to cleanUp()
+            return;
+        }
+        leftovers.remove(id);
+        CompletableFuture<Long> unlisted = watchList(id, false, acknowledged);
+        record(ConsistencyBudgets.DELETE_ITEM, acknowledged, pollItem(id, 404, acknowledged));
+        record(ConsistencyBudgets.DELETE_LIST, acknowledged, await(unlisted, id));
+    }
+
+    private static Map<String, Object> draft() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("firstName", "Probe");
+        body.put("lastName", TestNamespace.name("Probe"));
+        body.put("dependants", 0);
+        return body;
+    }
+
+    // Completed response, or null when the request itself failed (connection refused, timed out)
+    private static ApiResponse join(CompletableFuture<ApiResponse> request) {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    // Id of the created employee, or "" if the create did not succeed
+    private static String createdId(ApiResponse created) {
+        if (created == null || created.statusCode() != 200) {
+            return "";
+        }
+        try {
+            return created.json().path("id").asText();
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+
+    // Send time of the first GET /Api/Employees/{id} that answered with the status, or -1 after the timeout.
+    // The send time, not the arrival, so the read's own round trip is not counted as lag.
+    // A read that fails outright is polled again like one that still shows the old state.
+    private long pollItem(String id, int status, long acknowledged) {
+        while (System.nanoTime() - acknowledged < timeoutNanos) {
+            long sent = System.nanoTime();
+            ApiResponse response = join(api.get(Endpoint.EMPLOYEES + "/" + id));
+            if (response != null && response.statusCode() == status) {
+                return sent;
+            }
+            LockSupport.parkNanos(pollNanos - (System.nanoTime() - sent));
+        }
+        return -1;
+    }
+
+    private CompletableFuture<Long> watchList(String id, boolean present, long acknowledged) {
+        ListWatch watch = new ListWatch(present, acknowledged);
+        watches.put(id, watch);
+        return watch.seen;
+    }
+
+    private long await(CompletableFuture<Long> seen, String id) {
+        try {
+            return seen.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return -1;
+        } catch (Exception e) {
+            throw new IllegalStateException("List poll for " + id + " failed", e);
+        } finally {
+            watches.remove(id);
+        }
+    }
+
+    // One list read at a time for all writers, so the poll rate does not grow with the concurrency
+    private void pollList(AtomicBoolean polling) {
+        while (polling.get()) {
+            long sent = System.nanoTime();
+            if (!watches.isEmpty()) {
+                try {
+                    ApiResponse response = api.get(Endpoint.EMPLOYEES).join();
+                    Set<String> ids = new HashSet<>();
+                    for (JsonNode employee : response.json()) {
+                        ids.add(employee.path("id").asText());
+                    }
+                    watches.forEach((id, watch) -> {
+                        if (watch.acknowledged < sent && ids.contains(id) == watch.present) {
+                            // Ends the lag at the send time, so the list read's round trip is not counted
+                            watch.seen.complete(sent);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    System.err.println("List poll failed: " + e.getMessage());
+                }
+            }
+            LockSupport.parkNanos(pollNanos - (System.nanoTime() - sent));
+        }
+    }
+
+    // A lag that ran into the timeout is recorded as the timeout and counted as an error
+    private void record(String key, long acknowledged, long seen) {
+        boolean visible = seen >= 0;
+        stats.get(key).record(visible ? seen - acknowledged : timeoutNanos, 0, visible);
+    }
+
+    private void cleanUp() {
+        List<CompletableFuture<?>> deletes = new ArrayList<>();
+        for (String id : leftovers) {
+            deletes.add(api.delete(Endpoint.EMPLOYEES + "/" + id));
+        }
+        CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+    }
+
+    private Map<String, Object> results(double seconds, double factor) {
+        Map<String, Object> lag = new LinkedHashMap<>();
+        stats.forEach((key, latency) -> lag.put(key, latency.toJson(seconds)));
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("timestamp", Instant.now().toString());
+        run.put("baseUrl", api.getBaseUrl());
+        run.put("writes", writes);
+        run.put("concurrency", concurrency);
+        run.put("pollMs", TimeUnit.NANOSECONDS.toMillis(pollNanos));
+        run.put("budgetFactor", factor);
+        run.put("budgetsMs", budgets(factor));
+        Map<String, Object> failures = new LinkedHashMap<>();
+        failures.put("create", creates.toJson());
+        failures.put("delete", deletes.toJson());
+        run.put("writeFailures", failures);
+        run.put("lag", lag);
+        return run;
+    }
+
+    // p99 lag times the safety factor, rounded up to whole milliseconds
+    private Map<String, Long> budgets(double factor) {
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        stats.forEach((key, latency) ->
+                budgets.put(key, (long) Math.ceil(latency.valueAtPercentile(99) * factor / 1_000_000.0)));
+        return budgets;
+    }
+
+    private void writeBudgets(Path file, double factor, Duration poll) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write("# Read-after-write budgets in ms (p99 lag x " + factor + "), measured " + Instant.now()
+                    + " against " + api.getBaseUrl() + "\n");
+            out.write("# Regenerate with ./gradlew :api-tests:consistencyProbe\n");
+            for (Map.Entry<String, Long> budget : budgets(factor).entrySet()) {
+                out.write(budget.getKey() + "=" + budget.getValue() + "\n");
+            }
+            out.write("pollMillis=" + poll.toMillis() + "\n");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Attempts and failures of one kind of write
+    private static final class WriteOutcomes {
+        final String operation;
+        final AtomicLong attempted = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+
+        WriteOutcomes(String operation) {
+            this.operation = operation;
+        }
+
+        // Counts the write and returns whether it succeeded; response is null when none arrived
+        boolean record(ApiResponse response, boolean succeeded) {
+            attempted.incrementAndGet();
+            if (!succeeded) {
+                failed.incrementAndGet();
+                System.err.println(operation + " failed: " + (response == null ? "no response" : response + " " + response.body()));
+            }
+            return succeeded;
+        }
+
+        long succeeded() {
+            return attempted.get() - failed.get();
+        }
+
+        double failureRate() {
+            long attempts = attempted.get();
+            return attempts == 0 ? 0 : (double) failed.get() / attempts;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("attempted", attempted.get());
+            json.put("failed", failed.get());
+            json.put("failureRate", Math.round(failureRate() * 10_000) / 10_000.0);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return operation.toLowerCase() + " " + failed.get() + "/" + attempted.get();
+        }
+    }
+
+    private static final class ListWatch {
+        final boolean present;
+        final long acknowledged;
+        final CompletableFuture<Long> seen = new CompletableFuture<>();
+
+        ListWatch(boolean present, long acknowledged) {
+            this.present = present;
+            this.acknowledged = acknowledged;
+        }
+    }
+}
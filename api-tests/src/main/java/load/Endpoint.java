@@ -0,0 +1,83 @@
+package load;
+
+import client.ApiClient;
+import client.ApiResponse;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The /Api/Employees operations a load run can exercise
+public enum Endpoint {
+    LIST("GET /Api/Employees") {
+        @Override
+        CompletableFuture<ApiResponse> call(ApiClient api, List<String> seeded, BlockingQueue<String> created, String target) {
+            return api.get(EMPLOYEES);
+        }
+    },
+    GET("GET /Api/Employees/{id}") {
+        @Override
+        CompletableFuture<ApiResponse> call(ApiClient api, List<String> seeded, BlockingQueue<String> created, String target) {
+            String id = seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+            return api.get(EMPLOYEES + "/" + id);
+        }
+    },
+    CREATE("POST /Api/Employees") {
+        @Override
+        CompletableFuture<ApiResponse> call(ApiClient api, List<String> seeded, BlockingQueue<String> created, String target) {
+            return api.post(EMPLOYEES, LoadRun.draft(ThreadLocalRandom.current().nextInt(6)))
+                    .thenApply(response -> {
+                        if (response.statusCode() == 200) {
+                            created.offer(response.json().path("id").asText());
+                        }
+                        return response;
+                    });
+        }
+    },
+    DELETE("DELETE /Api/Employees/{id}") {
+        @Override
+        CompletableFuture<String> prepare(ApiClient api, List<String> seeded, BlockingQueue<String> created) {
+            // Deletes employees created earlier in the run; creates one first when none is left
+            String id = created.poll();
+            if (id != null) {
+                return CompletableFuture.completedFuture(id);
+            }
+            return api.post(EMPLOYEES, LoadRun.draft(0)).thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Creating an employee to delete failed: " + response + " " + response.body());
+                }
+                return response.json().path("id").asText();
+            });
+        }
+
+        @Override
+        CompletableFuture<ApiResponse> call(ApiClient api, List<String> seeded, BlockingQueue<String> created, String target) {
+            return api.delete(EMPLOYEES + "/" + target);
+        }
+    };
+
+    static final String EMPLOYEES = "/Api/Employees";
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    // Requests the measured one depends on, e.g. an employee to delete; completes with its target, untimed
+    CompletableFuture<String> prepare(ApiClient api, List<String> seeded, BlockingQueue<String> created) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // The measured request
+    abstract CompletableFuture<ApiResponse> call(ApiClient api, List<String> seeded, BlockingQueue<String> created, String target);
+
+    public String label() {
+        return label;
+    }
+
+    static Endpoint fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,73 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latency histogram of one endpoint. Values are nanoseconds measured from the intended start of each
+// request, so time spent waiting behind a stalled server is counted instead of silently omitted.
+class LatencyStats {
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(2);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+    private final AtomicLong errors = new AtomicLong();
+
+    void record(long latencyNanos, long expectedIntervalNanos, boolean success) {
+        long value = Math.min(latencyNanos, HIGHEST_TRACKABLE);
+        if (expectedIntervalNanos > 0) {
+            // Closed model: back-fill the samples a stalled user would have sent
+            histogram.recordValueWithExpectedInterval(value, expectedIntervalNanos);
+        } else {
+            histogram.recordValue(value);
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long valueAtPercentile(double percentile) {
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    // HdrHistogram's percentile distribution (.hgrm) in milliseconds, readable by its plotting tools
+    void writeDistribution(Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        }
+    }
+
+    Map<String, Object> toJson(double seconds) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", histogram.getTotalCount());
+        json.put("errors", errors.get());
+        json.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+        json.put("meanMs", millis(histogram.getMean()));
+        json.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        json.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+        json.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        json.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        json.put("maxMs", millis(histogram.getMaxValue()));
+        return json;
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,83 @@
+package load;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Load run settings, read from load.* system properties
+public class LoadConfig {
+    public enum Mode { OPEN, CLOSED }
+
+    final Mode mode;
+    final double ratePerSecond;
+    final int users;
+    final Duration pacing;
+    // Expected time between an unpaced closed-model user's requests; zero means the warmup's median latency
+    final Duration expectedInterval;
+    final Duration warmup;
+    final Duration duration;
+    final int maxInFlight;
+    final int seedEmployees;
+    final List<Endpoint> endpoints;
+    final Path output;
+
+    LoadConfig(Mode mode, double ratePerSecond, int users, Duration pacing, Duration expectedInterval, Duration warmup,
+               Duration duration, int maxInFlight, int seedEmployees, List<Endpoint> endpoints, Path output) {
+        this.mode = mode;
+        this.ratePerSecond = ratePerSecond;
+        this.users = users;
+        this.pacing = pacing;
+        this.expectedInterval = expectedInterval;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.seedEmployees = seedEmployees;
+        this.endpoints = endpoints;
+        this.output = output;
+    }
+
+    public static LoadConfig fromSystemProperties() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String name : System.getProperty("load.endpoints", "list,get,create,delete").split(",")) {
+            if (!name.trim().isEmpty()) {
+                endpoints.add(Endpoint.fromName(name.trim()));
+            }
+        }
+        int seedEmployees = Integer.getInteger("load.seedEmployees", 20);
+        if (endpoints.contains(Endpoint.GET) && seedEmployees < 1) {
+            throw new IllegalArgumentException("load.seedEmployees must be at least 1 to load GET /Api/Employees/{id}");
+        }
+        Mode mode = Mode.valueOf(System.getProperty("load.mode", "open").toUpperCase());
+        Duration pacing = Duration.ofMillis(Long.getLong("load.pacingMs", 0));
+        Duration expectedInterval = Duration.ofMillis(Long.getLong("load.expectedIntervalMs", 0));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5));
+        // Without an expected interval unpaced users would record no coordinated-omission correction at all
+        if (mode == Mode.CLOSED && pacing.isZero() && expectedInterval.isZero() && warmup.isZero()) {
+            throw new IllegalArgumentException("An unpaced closed model needs load.pacingMs, load.expectedIntervalMs "
+                    + "or a warmup (load.warmupSeconds) to derive the expected interval from");
+        }
+        return new LoadConfig(
+                mode,
+                Double.parseDouble(System.getProperty("load.rate", "20")),
+                Integer.getInteger("load.users", 4),
+                pacing,
+                expectedInterval,
+                warmup,
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 30)),
+                Integer.getInteger("load.maxInFlight", 512),
+                seedEmployees,
+                endpoints,
+                Paths.get(System.getProperty("load.output", "build/load/results.json")));
+    }
+
+    @Override
+    public String toString() {
+        String shape = mode == Mode.OPEN
+                ? ratePerSecond + " req/s"
+                : users + " users" + (pacing.isZero() ? "" : " paced every " + pacing.toMillis() + " ms");
+        return mode.name().toLowerCase() + " model, " + shape + ", " + duration.getSeconds() + " s after "
+                + warmup.getSeconds() + " s warmup, endpoints " + endpoints;
+    }
+}
@@ -0,0 +1,285 @@
+package load;
+
+import client.ApiClient;
+import client.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import namespace.TestNamespace;
+import stub.StubServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Load generator for /Api/Employees.
+//   open model   - requests start at a constant arrival rate no matter how slow responses are
+//   closed model - N virtual users, each waiting for its response before sending the next request
+// Results are written as JSON (load.output) so runs can be diffed.
+public class LoadRun {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final LoadConfig config;
+    private final ApiClient api;
+    private final List<String> seeded = Collections.synchronizedList(new ArrayList<>());
+    private final BlockingQueue<String> created = new LinkedBlockingQueue<>();
+    private final Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+    // Warmup latencies, the default expected interval of unpaced closed-model users
+    private final Map<Endpoint, LatencyStats> baseline = new EnumMap<>(Endpoint.class);
+
+    public LoadRun(LoadConfig config, ApiClient api) {
+        this.config = config;
+        this.api = api;
+        for (Endpoint endpoint : config.endpoints) {
+            stats.put(endpoint, new LatencyStats());
+            baseline.put(endpoint, new LatencyStats());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        // stub.server=true runs against the in-process stand-in instead of base.url
+        StubServer stub = Boolean.getBoolean("stub.server") ? StubServer.start() : null;
+        if (stub != null) {
+            System.setProperty("base.url", stub.getBaseUrl());
+        }
+        ApiClient api = ApiClient.fromSystemProperties();
+        System.out.println("Load run against " + api.getBaseUrl() + ": " + config);
+
+        Map<String, Object> results;
+        try {
+            results = new LoadRun(config, api).run();
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+
+        Files.createDirectories(config.output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.output.toFile(), results);
+        System.out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(results.get("endpoints")));
+        System.out.println("Results written to " + config.output.toAbsolutePath());
+    }
+
+    // Named through TestNamespace, so employees a killed run never deleted are swept up by OrphanJanitor
+    static Map<String, Object> draft(int dependants) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("firstName", "Load");
+        body.put("lastName", TestNamespace.name("L" + SEQUENCE.incrementAndGet()));
+        body.put("dependants", dependants);
+        return body;
+    }
+
+    public Map<String, Object> run() {
+        seed();
+        try {
+            // Warmup traffic is not recorded
+            drive(config.warmup, false);
+            long started = System.nanoTime();
+            drive(config.duration, true);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            return results(seconds);
+        } finally {
+            cleanUp();
+        }
+    }
+
+    private void drive(Duration length, boolean record) {
+        if (length.isZero()) {
+            return;
+        }
+        if (config.mode == LoadConfig.Mode.OPEN) {
+            driveOpen(length.toNanos(), record);
+        } else {
+            driveClosed(length.toNanos(), record);
+        }
+    }
+
+    // Each request has an intended start time on a fixed schedule; latency is measured from that time
+    private void driveOpen(long lengthNanos, boolean record) {
+        long interval = (long) (1_000_000_000L / config.ratePerSecond);
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        long start = System.nanoTime();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended - start >= lengthNanos) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquireUninterruptibly();
+            Endpoint endpoint = pick(i);
+            send(endpoint, intended).whenComplete((sample, error) -> {
+                if (record) {
+                    stats.get(endpoint).record(sample.latencyNanos, 0, sample.success);
+                }
+                inFlight.release();
+            });
+        }
+        // Wait for the stragglers by taking back every permit
+        inFlight.acquireUninterruptibly(config.maxInFlight);
+    }
+
+    // Each virtual user sends one request at a time; with pacing the user aims for one request per interval
+    private void driveClosed(long lengthNanos, boolean record) {
+        long pacing = config.pacing.toNanos();
+        long start = System.nanoTime();
+        List<Thread> users = new ArrayList<>();
+        for (int u = 0; u < config.users; u++) {
+            int user = u;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; ; i++) {
+                    long intended = pacing > 0 ? start + i * pacing : System.nanoTime();
+                    if (intended - start >= lengthNanos) {
+                        return;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Endpoint endpoint = pick(i * config.users + user);
+                    Sample sample = send(endpoint, intended).join();
+                    if (record) {
+                        // Unpaced users still get coordinated-omission correction from the expected interval
+                        long expected = pacing > 0 ? 0 : expectedIntervalNanos(endpoint);
+                        stats.get(endpoint).record(sample.latencyNanos, expected, sample.success);
+                    } else if (pacing == 0) {
+                        baseline.get(endpoint).record(sample.latencyNanos, 0, sample.success);
+                    }
+                }
+            }, "load-user-" + u);
+            thread.start();
+            users.add(thread);
+        }
+        for (Thread user : users) {
+            try {
+                user.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Runs the endpoint's untimed setup, then its request. Latency counts from the intended start, so time spent
+    // waiting behind a slow server still counts, minus the setup's own round trip: a DELETE that first had to
+    // create its employee is timed like any other DELETE. Never completes exceptionally; a failed setup is a
+    // failed sample.
+    private CompletableFuture<Sample> send(Endpoint endpoint, long intended) {
+        long setupStarted = System.nanoTime();
+        CompletableFuture<String> prepared;
+        try {
+            prepared = endpoint.prepare(api, seeded, created);
+        } catch (RuntimeException e) {
+            prepared = CompletableFuture.failedFuture(e);
+        }
+        boolean setUp = !prepared.isDone();
+        long[] setupNanos = {0};
+        return prepared
+                .thenCompose(target -> {
+                    if (setUp) {
+                        setupNanos[0] = System.nanoTime() - setupStarted;
+                    }
+                    return endpoint.call(api, seeded, created, target);
+                })
+                .handle((response, error) -> new Sample(System.nanoTime() - intended - setupNanos[0], isSuccess(response, error)));
+    }
+
+    // Expected time between requests of an unpaced user: load.expectedIntervalMs, or else the endpoint's
+    // median latency during warmup, when the server was not yet under the measured load
+    private long expectedIntervalNanos(Endpoint endpoint) {
+        if (!config.expectedInterval.isZero()) {
+            return config.expectedInterval.toNanos();
+        }
+        LatencyStats warmup = baseline.get(endpoint);
+        return warmup.count() == 0 ? 0 : warmup.valueAtPercentile(50);
+    }
+
+    private Endpoint pick(long sequence) {
+        return config.endpoints.get((int) (sequence % config.endpoints.size()));
+    }
+
+    private static boolean isSuccess(ApiResponse response, Throwable error) {
+        return error == null && response != null && response.statusCode() / 100 == 2;
+    }
+
+    private void seed() {
+        List<CompletableFuture<ApiResponse>> requests = new ArrayList<>();
+        for (int i = 0; i < config.seedEmployees; i++) {
+            requests.add(api.post(Endpoint.EMPLOYEES, draft(ThreadLocalRandom.current().nextInt(6))));
+        }
+        for (CompletableFuture<ApiResponse> request : requests) {
+            ApiResponse response = request.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response + " " + response.body());
+            }
+            seeded.add(response.json().path("id").asText());
+        }
+    }
+
+    private void cleanUp() {
+        List<String> ids = new ArrayList<>(seeded);
+        created.drainTo(ids);
+        List<CompletableFuture<?>> deletes = new ArrayList<>();
+        for (String id : ids) {
+            deletes.add(api.delete(Endpoint.EMPLOYEES + "/" + id));
+        }
+        awaitAll(deletes);
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+    }
+
+    private Map<String, Object> results(double seconds) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, latency) -> endpoints.put(endpoint.label(), latency.toJson(seconds)));
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("timestamp", Instant.now().toString());
+        run.put("baseUrl", api.getBaseUrl());
+        run.put("mode", config.mode.name().toLowerCase());
+        if (config.mode == LoadConfig.Mode.OPEN) {
+            run.put("ratePerSecond", config.ratePerSecond);
+        } else {
+            run.put("users", config.users);
+            run.put("pacingMs", config.pacing.toMillis());
+            if (config.pacing.isZero()) {
+                Map<String, Object> expected = new LinkedHashMap<>();
+                stats.keySet().forEach(endpoint -> expected.put(endpoint.label(), expectedIntervalNanos(endpoint) / 1_000_000.0));
+                run.put("expectedIntervalMs", expected);
+            }
+        }
+        run.put("durationSeconds", Math.round(seconds * 1000) / 1000.0);
+        run.put("endpoints", endpoints);
+        return run;
+    }
+
+    private static final class Sample {
+        final long latencyNanos;
+        final boolean success;
+
+        Sample(long latencyNanos, boolean success) {
+            this.latencyNanos = latencyNanos;
+            this.success = success;
+        }
+    }
+}
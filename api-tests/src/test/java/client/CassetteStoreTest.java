@@ -0,0 +1,140 @@
+package client;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import stub.StubServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+// Record/replay round trips through the on-disk cassette format, without the live API
+public class CassetteStoreTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path dir;
+
+    private CassetteStore store(CassetteStore.Mode mode) {
+        return CassetteStore.open(mode, dir.resolve("test.cassette"), dir.resolve("drift.json"));
+    }
+
+    private static void record(CassetteStore store, String method, String path, String body, int status, String response) {
+        store.exchange(method, path, body).completed(status, response.getBytes(StandardCharsets.UTF_8), 1_000_000);
+    }
+
+    private static ApiClient client(CassetteStore store, String username) {
+        // Replays never reach this address
+        return new ApiClient("http://127.0.0.1:9", username, "secret", TIMEOUT, store);
+    }
+
+    @Test
+    @DisplayName("Recorded responses replay with their status and body")
+    void recordThenReplay() {
+        CassetteStore recording = store(CassetteStore.Mode.RECORD);
+        record(recording, "POST", "/Api/Employees", "{\"firstName\":\"Oscar\",\"dependants\":0}", 200, "{\"id\":\"a1\"}");
+        record(recording, "GET", "/Api/Employees/a1", null, 404, "");
+        recording.write();
+
+        ApiClient api = client(store(CassetteStore.Mode.REPLAY), "TestUser");
+        ApiResponse created = api.post("/Api/Employees", Map.of("firstName", "Oscar", "dependants", 0)).join();
+        Assertions.assertEquals(200, created.statusCode());
+        Assertions.assertEquals("a1", created.json().path("id").asText());
+        Assertions.assertEquals(404, api.get("/Api/Employees/a1").join().statusCode());
+    }
+
+    @Test
+    @DisplayName("The same request replays its recordings in order, then repeats the last one")
+    void sameKeyTwice() {
+        CassetteStore recording = store(CassetteStore.Mode.RECORD);
+        record(recording, "GET", "/Api/Employees", null, 200, "[]");
+        record(recording, "GET", "/Api/Employees", null, 200, "[{\"id\":\"a1\"}]");
+        recording.write();
+
+        ApiClient api = client(store(CassetteStore.Mode.REPLAY), "TestUser");
+        Assertions.assertEquals("[]", api.get("/Api/Employees").join().body());
+        Assertions.assertEquals("[{\"id\":\"a1\"}]", api.get("/Api/Employees").join().body());
+        Assertions.assertEquals("[{\"id\":\"a1\"}]", api.get("/Api/Employees").join().body());
+    }
+
+    @Test
+    @DisplayName("Entries whose key hashes collide are told apart by their key")
+    void hashCollision() throws IOException {
+        Path file = dir.resolve("collision.cassette");
+        String first = CassetteStore.key("GET", "/Api/Employees/a1", null);
+        String second = CassetteStore.key("GET", "/Api/Employees/b2", null);
+        Cassette.write(file, List.of(
+                new Cassette.Interaction(first, 200, 1, ByteBuffer.wrap("first".getBytes(StandardCharsets.UTF_8))),
+                new Cassette.Interaction(second, 200, 1, ByteBuffer.wrap("second".getBytes(StandardCharsets.UTF_8)))));
+
+        // Rewrite the index so both entries carry the first key's hash, the second entry listed first
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        int index = Math.toIntExact(bytes.getLong(8));
+        long firstOffset = 24;
+        long secondOffset = 24 + 4 + first.getBytes(StandardCharsets.UTF_8).length + 4 + 8 + 4 + "first".length();
+        bytes.putLong(index, Cassette.hash(first)).putLong(index + 8, secondOffset);
+        bytes.putLong(index + 16, Cassette.hash(first)).putLong(index + 24, firstOffset);
+        Files.write(file, bytes.array());
+
+        Cassette cassette = Cassette.open(file);
+        Assertions.assertEquals("first", cassette.find(first, 0).body());
+        Assertions.assertNull(cassette.find(second, 0), "an entry is only found under its own hash");
+        Assertions.assertNull(cassette.find(CassetteStore.key("GET", "/Api/Employees/c3", null), 0));
+    }
+
+    @Test
+    @DisplayName("Query parameter order, JSON formatting and request headers do not change the match")
+    void normalization() {
+        Assertions.assertEquals(CassetteStore.key("GET", "/Api/Employees?b=2&a=1", null),
+                CassetteStore.key("get", "/Api/Employees?a=1&b=2", null));
+        Assertions.assertEquals(CassetteStore.key("POST", "/Api/Employees", "{\"b\": 1, \"a\": {\"d\": 1, \"c\": 2}}"),
+                CassetteStore.key("POST", "/Api/Employees", "{\"a\":{\"c\":2,\"d\":1},\"b\":1}"));
+
+        CassetteStore recording = store(CassetteStore.Mode.RECORD);
+        record(recording, "GET", "/Api/Employees?a=1&b=2", null, 200, "[]");
+        recording.write();
+
+        // Other credentials mean another Authorization header; it is not part of the key
+        ApiResponse replayed = client(store(CassetteStore.Mode.REPLAY), "OtherUser").get("/Api/Employees?b=2&a=1").join();
+        Assertions.assertEquals(200, replayed.statusCode());
+    }
+
+    @Test
+    @DisplayName("A request that was not recorded fails in replay mode")
+    void missingEntry() {
+        CassetteStore recording = store(CassetteStore.Mode.RECORD);
+        record(recording, "GET", "/Api/Employees", null, 200, "[]");
+        recording.write();
+
+        ApiClient api = client(store(CassetteStore.Mode.REPLAY), "TestUser");
+        CompletionException failure = Assertions.assertThrows(CompletionException.class,
+                () -> api.get("/Api/Employees/missing").join());
+        Assertions.assertTrue(failure.getCause().getMessage().startsWith("No recording in "), failure.getCause().getMessage());
+        Assertions.assertThrows(CompletionException.class, () -> api.getEmployeeStream("/Api/Employees?page=2").join());
+    }
+
+    @Test
+    @DisplayName("A streamed GET is recorded in full even when the reader stops early")
+    void streamedBodyIsRecorded() {
+        CassetteStore recording = store(CassetteStore.Mode.RECORD);
+        try (StubServer stub = StubServer.start(0, "TestUser", "secret")) {
+            stub.seed(25);
+            ApiClient api = new ApiClient(stub.getBaseUrl(), "TestUser", "secret", TIMEOUT, recording);
+            try (EmployeeStream stream = api.getEmployeeStream("/Api/Employees").join()) {
+                Assertions.assertTrue(stream.checks().findFirst().isPresent());
+            }
+        }
+        recording.write();
+
+        ApiClient replay = client(store(CassetteStore.Mode.REPLAY), "TestUser");
+        try (EmployeeStream stream = replay.getEmployeeStream("/Api/Employees").join()) {
+            Assertions.assertEquals(25, stream.checks().count());
+        }
+    }
+}
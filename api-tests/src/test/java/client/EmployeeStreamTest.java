@@ -0,0 +1,176 @@
+package client;
+
+import benefits.BenefitsEngine;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Record-by-record validation of GET /Api/Employees bodies, without the live API
+public class EmployeeStreamTest {
+    private static final BenefitsEngine ENGINE = BenefitsEngine.STANDARD;
+
+    private static String employee(String id, String dependants) {
+        int count = dependants.matches("\\d{1,2}") ? Integer.parseInt(dependants) : 0;
+        return "{\"id\":\"" + id + "\",\"firstName\":\"Oscar\",\"lastName\":\"Test\",\"dependants\":" + dependants
+                + ",\"salary\":52000,\"gross\":2000,\"benefitsCost\":" + ENGINE.benefitsCostCents(count) / 100.0
+                + ",\"net\":" + ENGINE.netPayCents(count) / 100.0 + "}";
+    }
+
+    private static EmployeeStream stream(int status, String body) {
+        return stream(status, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static EmployeeStream stream(int status, InputStream body) {
+        return new EmployeeStream("/Api/Employees", status, body, ENGINE);
+    }
+
+    private static List<EmployeeCheck> checks(String body) {
+        try (EmployeeStream employees = stream(200, body); Stream<EmployeeCheck> checks = employees.checks()) {
+            return checks.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Employees with all fields and correct benefits are valid")
+    void validEmployees() {
+        List<EmployeeCheck> checks = checks("[" + employee("a1", "0") + "," + employee("b2", "3") + "]");
+
+        Assertions.assertEquals(2, checks.size());
+        Assertions.assertTrue(checks.stream().allMatch(EmployeeCheck::isValid), checks.toString());
+        Assertions.assertEquals("b2", checks.get(1).getId());
+        Assertions.assertEquals(1, checks.get(1).getIndex());
+    }
+
+    @Test
+    @DisplayName("Wrong benefits are reported with the field that is off")
+    void wrongBenefits() {
+        String body = employee("a1", "2").replace("\"net\":", "\"net\":1.0,\"ignored\":");
+
+        EmployeeCheck check = checks("[" + body + "]").get(0);
+
+        Assertions.assertTrue(check.hasRequiredFields());
+        Assertions.assertFalse(check.hasCorrectBenefits());
+        Assertions.assertTrue(check.getBenefitProblems().get(0).contains("net"), check.toString());
+    }
+
+    @Test
+    @DisplayName("A missing dependant count fails the benefits check instead of skipping it")
+    void missingDependants() {
+        EmployeeCheck check = checks("[" + employee("a1", "0").replace("\"dependants\":0,", "") + "]").get(0);
+
+        Assertions.assertEquals(List.of("dependants"), check.getMissingFields());
+        Assertions.assertFalse(check.hasCorrectBenefits(), check.toString());
+        Assertions.assertEquals(List.of("benefits not checked: dependants is missing"), check.getBenefitProblems());
+    }
+
+    @Test
+    @DisplayName("A dependant count that is not a non-negative integer fails the benefits check")
+    void nonIntegerDependants() {
+        for (String dependants : List.of("\"2\"", "1.5", "-1", "null", "true", "{\"count\":2}", "[2]", "3000000000")) {
+            EmployeeCheck check = checks("[" + employee("a1", dependants) + "]").get(0);
+
+            Assertions.assertFalse(check.hasCorrectBenefits(), dependants + " passed: " + check);
+            Assertions.assertEquals("a1", check.getId(), dependants);
+        }
+    }
+
+    @Test
+    @DisplayName("Nested values in place of scalars do not throw the next fields off")
+    void nestedValues() {
+        String body = employee("a1", "0").replace("\"salary\":52000", "\"salary\":{\"amount\":52000,\"net\":1}")
+                .replace("\"firstName\":\"Oscar\"", "\"firstName\":\"Oscar\",\"address\":{\"id\":\"x\",\"dependants\":[9]}");
+
+        List<EmployeeCheck> checks = checks("[" + body + "," + employee("b2", "1") + "]");
+
+        Assertions.assertEquals(2, checks.size());
+        Assertions.assertEquals("a1", checks.get(0).getId());
+        Assertions.assertTrue(checks.get(0).isValid(), checks.get(0).toString());
+        Assertions.assertTrue(checks.get(1).isValid(), checks.get(1).toString());
+    }
+
+    @Test
+    @DisplayName("An array element that is not an object is reported and the rest is still read")
+    void nonObjectElement() {
+        List<EmployeeCheck> checks = checks("[[1,2]," + employee("b2", "0") + "]");
+
+        Assertions.assertEquals(List.of(EmployeeStream.REQUIRED_FIELDS), checks.get(0).getMissingFields());
+        Assertions.assertEquals(List.of("not a JSON object"), checks.get(0).getBenefitProblems());
+        Assertions.assertTrue(checks.get(1).isValid(), checks.get(1).toString());
+    }
+
+    @Test
+    @DisplayName("A short-circuiting consumer stops reading and closes the response")
+    void stopsAtFirstMatch() {
+        StringBuilder body = new StringBuilder("[" + employee("e0", "0"));
+        for (int i = 1; i < 10_000; i++) {
+            body.append(',').append(employee("e" + i, String.valueOf(i % 5)));
+        }
+        byte[] bytes = body.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        CountingStream counting = new CountingStream(new ByteArrayInputStream(bytes));
+
+        try (EmployeeStream employees = stream(200, counting); Stream<EmployeeCheck> checks = employees.checks()) {
+            Assertions.assertEquals("e3", checks.filter(check -> check.getId().equals("e3")).findFirst().orElseThrow().getId());
+        }
+
+        Assertions.assertTrue(counting.read < bytes.length / 10, "read " + counting.read + " of " + bytes.length + " bytes");
+        Assertions.assertTrue(counting.closed);
+    }
+
+    @Test
+    @DisplayName("A failed or non-array response fails instead of yielding no employees")
+    void rejectsUnusableResponses() {
+        CountingStream unauthorized = new CountingStream(new ByteArrayInputStream(new byte[0]));
+        EmployeeStream failed = stream(401, unauthorized);
+        Assertions.assertEquals(401, failed.statusCode());
+        Assertions.assertThrows(IllegalStateException.class, failed::checks);
+        Assertions.assertTrue(unauthorized.closed);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> stream(200, "{\"message\":\"Not Found\"}").checks());
+    }
+
+    @Test
+    @DisplayName("A failing check lists its benefit problems and missing fields")
+    void describesFailures() {
+        EmployeeCheck check = new EmployeeCheck(4, "a1", List.of("net"), List.of("benefitsCost off"));
+
+        Assertions.assertFalse(check.isValid());
+        Assertions.assertEquals("employee #4 (a1): benefitsCost off; missing net", check.toString());
+        Assertions.assertEquals("employee #0 (b2) is valid", new EmployeeCheck(0, "b2", List.of(), List.of()).toString());
+    }
+
+    private static final class CountingStream extends FilterInputStream {
+        long read;
+        boolean closed;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            read += b < 0 ? 0 : 1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            read += Math.max(0, n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package tests;
+
+import benefits.BenefitsEngine;
+import benefits.Verification;
+import client.ApiClient;
+import client.ApiResponse;
+import client.EmployeeCheck;
+import client.EmployeeStream;
+import com.fasterxml.jackson.databind.JsonNode;
+import consistency.ConsistencyBudgets;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Java port of api-tests/paylocity-api-collection.json.
+// All requests are fired up front in @BeforeAll; only requests that need an id wait for the POST that
+// creates it, so the class takes about as long as its longest request chain.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class EmployeesApiTest {
+    private static final String EMPLOYEES = "/Api/Employees";
+
+    private final ApiClient api = ApiClient.fromSystemProperties();
+    // How long a write may take to show up in reads, measured by ./gradlew :api-tests:consistencyProbe
+    private final ConsistencyBudgets budgets = ConsistencyBudgets.measured();
+
+    private CompletableFuture<EmployeeStream> listEmployees;
+    private CompletableFuture<EmployeeStream> streamForFields;
+    private CompletableFuture<EmployeeStream> streamForBenefits;
+    private CompletableFuture<ApiResponse> createEmployee;
+    private CompletableFuture<ApiResponse> createWithTenDependants;
+    private CompletableFuture<ApiResponse> getEmployee;
+    private CompletableFuture<ApiResponse> putEmployee;
+    private CompletableFuture<ApiResponse> deleteEmployee;
+    private CompletableFuture<ApiResponse> getAfterDelete;
+
+    @BeforeAll
+    void sendRequests() {
+        // Validated record by record while downloading, so large tenants are not held in memory
+        listEmployees = api.getEmployeeStream(EMPLOYEES);
+        streamForFields = api.getEmployeeStream(EMPLOYEES);
+        streamForBenefits = api.getEmployeeStream(EMPLOYEES);
+        createEmployee = api.post(EMPLOYEES, draft("Oscar", "Test", 0));
+        createWithTenDependants = api.post(EMPLOYEES, draft("Oscar", "TenDeps", 10));
+
+        CompletableFuture<String> createdId = createEmployee.thenApply(response -> response.json().path("id").asText());
+        getEmployee = createdId.thenCompose(id -> api.getUntil(EMPLOYEES + "/" + id, 200, budgets.get(ConsistencyBudgets.CREATE_ITEM)));
+        putEmployee = createdId.thenCompose(id -> api.put(EMPLOYEES + "/" + id,
+                Map.of("id", id, "firstName", "Oscar", "lastName", "Updated", "dependants", 1)));
+
+        // DELETE only once the reads of the same employee are done
+        deleteEmployee = CompletableFuture.allOf(getEmployee, putEmployee)
+                .thenCompose(done -> createdId)
+                .thenCompose(id -> api.delete(EMPLOYEES + "/" + id));
+        getAfterDelete = deleteEmployee
+                .thenCompose(done -> createdId)
+                .thenCompose(id -> api.getUntil(EMPLOYEES + "/" + id, 404, budgets.get(ConsistencyBudgets.DELETE_ITEM)));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        listEmployees.thenAccept(EmployeeStream::close);
+        streamForFields.thenAccept(EmployeeStream::close);
+        streamForBenefits.thenAccept(EmployeeStream::close);
+        // Both employees, whether or not the chain after the POST got as far as its own DELETE; deleting an
+        // id twice is harmless. A failed POST or DELETE does not stop the cleanup of the other employee.
+        List<CompletableFuture<ApiResponse>> deletes = new ArrayList<>();
+        for (CompletableFuture<ApiResponse> created : List.of(createEmployee, createWithTenDependants)) {
+            String id = createdId(created);
+            if (!id.isEmpty()) {
+                deletes.add(api.delete(EMPLOYEES + "/" + id).exceptionally(error -> null));
+            }
+        }
+        CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    // GET /Api/Employees
+
+    @Test
+    @DisplayName("GET all - status code is 200")
+    void listStatusIs200() {
+        Assertions.assertEquals(200, listEmployees.join().statusCode());
+    }
+
+    @Test
+    @DisplayName("GET all - response is a non-empty array")
+    void listIsNonEmptyArray() {
+        // checks() fails unless the body is an array; only the first employee is read
+        try (EmployeeStream employees = listEmployees.join(); Stream<EmployeeCheck> checks = employees.checks()) {
+            Assertions.assertTrue(checks.findFirst().isPresent(), "Array should contain employees");
+        }
+    }
+
+    @Test
+    @DisplayName("GET all - each employee has required fields")
+    void listEmployeesHaveRequiredFields() {
+        assertFirstFailure(streamForFields, check -> !check.hasRequiredFields());
+    }
+
+    @Test
+    @DisplayName("GET all - benefits calculation is correct")
+    void listBenefitsAreCorrect() {
+        assertFirstFailure(streamForBenefits, check -> !check.hasCorrectBenefits());
+    }
+
+    // GET /Api/Employees/{id}
+
+    @Test
+    @DisplayName("GET by id - status code is 200 and response is an object")
+    void getByIdReturnsObject() {
+        ApiResponse response = getEmployee.join();
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.json().isObject(), "Response should be an object");
+    }
+
+    @Test
+    @DisplayName("GET by id - employee has all required fields and defaults")
+    void getByIdHasFieldsAndDefaults() {
+        JsonNode employee = getEmployee.join().json();
+        assertHasFields(employee, "id", "firstName", "lastName", "dependants", "salary", "gross");
+        Assertions.assertEquals(52000, employee.path("salary").asDouble(), 0.001);
+        Assertions.assertEquals(2000, employee.path("gross").asDouble(), 0.001);
+    }
+
+    @Test
+    @DisplayName("GET by id - id matches requested id")
+    void getByIdMatchesId() {
+        String requested = createEmployee.join().json().path("id").asText();
+        Assertions.assertEquals(requested, getEmployee.join().json().path("id").asText());
+    }
+
+    @Test
+    @DisplayName("GET by id - benefits calculation is accurate")
+    void getByIdBenefitsAreCorrect() {
+        assertBenefits(getEmployee.join());
+    }
+
+    // POST /Api/Employees
+
+    @Test
+    @DisplayName("POST - employee is created with the requested data and defaults")
+    void createEmployeeReturnsData() {
+        assertCreated(createEmployee.join(), "Oscar", "Test", 0);
+    }
+
+    @Test
+    @DisplayName("POST - edge case with 10 dependants")
+    void createEmployeeWithTenDependantsReturnsData() {
+        assertCreated(createWithTenDependants.join(), "Oscar", "TenDeps", 10);
+    }
+
+    // PUT /Api/Employees/{id}
+
+    @Test
+    @DisplayName("PUT - method is not allowed")
+    void putIsNotAllowed() {
+        Assertions.assertEquals(405, putEmployee.join().statusCode(), "PUT should return 405 Method Not Allowed");
+    }
+
+    @Test
+    @DisplayName("PUT - response indicates method not allowed")
+    void putSaysMethodNotAllowed() {
+        // java.net.http does not expose the reason phrase the collection checked; the live API repeats it in the body
+        ApiResponse response = putEmployee.join();
+        Assertions.assertTrue(response.body().contains("Method Not Allowed"), response + ": " + response.body());
+    }
+
+    // DELETE /Api/Employees/{id}
+
+    @Test
+    @DisplayName("DELETE - status code is 200 and response time is acceptable")
+    void deleteReturns200Quickly() {
+        ApiResponse response = deleteEmployee.join();
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.elapsed().toMillis() < 2000, "DELETE took " + response.elapsed().toMillis() + " ms");
+    }
+
+    @Test
+    @DisplayName("DELETE - GET afterwards returns 200 or 404")
+    void getAfterDeleteDocumentsBehavior() {
+        int status = getAfterDelete.join().statusCode();
+        Assertions.assertTrue(List.of(200, 404).contains(status), "GET after DELETE returned " + status);
+    }
+
+    // Helpers
+
+    private static Map<String, Object> draft(String firstName, String lastName, int dependants) {
+        return Map.of("firstName", firstName, "lastName", lastName, "dependants", dependants);
+    }
+
+    // Id of the employee a POST created, or "" if it failed
+    private static String createdId(CompletableFuture<ApiResponse> created) {
+        try {
+            ApiResponse response = created.join();
+            return response.statusCode() == 200 ? response.json().path("id").asText() : "";
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+
+    private void assertCreated(ApiResponse response, String firstName, String lastName, int dependants) {
+        Assertions.assertEquals(200, response.statusCode(), response.toString());
+        JsonNode employee = response.json();
+        Assertions.assertFalse(employee.path("id").asText().isEmpty(), "Created employee should have an id");
+        Assertions.assertEquals(firstName, employee.path("firstName").asText());
+        Assertions.assertEquals(lastName, employee.path("lastName").asText());
+        Assertions.assertEquals(dependants, employee.path("dependants").asInt());
+        Assertions.assertEquals(52000, employee.path("salary").asDouble(), 0.001);
+        Assertions.assertEquals(2000, employee.path("gross").asDouble(), 0.001);
+        Assertions.assertEquals(System.getProperty("test.username", "TestUser773"), employee.path("username").asText());
+        assertBenefits(response);
+    }
+
+    // Stops reading at the first failing employee, before the rest of the body has downloaded
+    private static void assertFirstFailure(CompletableFuture<EmployeeStream> response, Predicate<EmployeeCheck> failed) {
+        try (EmployeeStream employees = response.join(); Stream<EmployeeCheck> checks = employees.checks()) {
+            Optional<EmployeeCheck> failure = checks.filter(failed).findFirst();
+            Assertions.assertTrue(failure.isEmpty(), () -> failure.get().toString());
+        }
+    }
+
+    private static void assertHasFields(JsonNode employee, String... fields) {
+        for (String field : fields) {
+            Assertions.assertTrue(employee.has(field), "Employee " + employee.path("id").asText() + " is missing " + field);
+        }
+    }
+
+    // Benefits: $1000/year per employee + $500/year per dependant, over 26 paychecks (see BenefitsEngine)
+    private static void assertBenefits(ApiResponse response) {
+        // verify() skips values the response does not report, so a missing amount would pass
+        JsonNode employee = response.json();
+        for (String field : List.of("benefitsCost", "net")) {
+            Assertions.assertTrue(employee.path(field).isNumber(), response + ": " + field + " should be a number, was " + employee.get(field));
+        }
+        Verification verification = BenefitsEngine.STANDARD.verify(response.payroll());
+        Assertions.assertTrue(verification.isClean(), response + ": " + verification);
+    }
+}
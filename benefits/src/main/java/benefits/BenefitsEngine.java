@@ -0,0 +1,119 @@
+package benefits;
+
+import java.util.stream.IntStream;
+
+// Reference implementation of the payroll deductions, in exact fixed-point cents:
+//   benefits cost per paycheck = (1000 + 500 * dependants) / 26, net pay = gross - benefits cost
+// with gross 2000 per paycheck (salary 52000). Per-paycheck amounts are computed from the exact
+// fraction and rounded half-up to the cent, which is what the dashboard's toFixed(2) shows.
+public final class BenefitsEngine {
+    public static final BenefitsEngine STANDARD = new BenefitsEngine(26, 2000_00, 1000_00, 500_00);
+
+    // Large batches are split into chunks of this many employees and verified in parallel
+    private static final int CHUNK_SIZE = 16_384;
+
+    private final int paychecks;
+    private final long grossCents;
+    private final long employeeCostCents;
+    private final long dependantCostCents;
+
+    public BenefitsEngine(int paychecks, long grossCents, long employeeCostCents, long dependantCostCents) {
+        if (paychecks <= 0) {
+            throw new IllegalArgumentException("paychecks must be positive: " + paychecks);
+        }
+        this.paychecks = paychecks;
+        this.grossCents = grossCents;
+        this.employeeCostCents = employeeCostCents;
+        this.dependantCostCents = dependantCostCents;
+    }
+
+    public long salaryCents() {
+        return grossCents * paychecks;
+    }
+
+    public long grossCents() {
+        return grossCents;
+    }
+
+    public long benefitsCostCents(int dependants) {
+        return roundHalfUp(annualCostCents(dependants), paychecks);
+    }
+
+    // Rounded from the exact net, not as gross minus the rounded cost
+    public long netPayCents(int dependants) {
+        return roundHalfUp(grossCents * paychecks - annualCostCents(dependants), paychecks);
+    }
+
+    public Verification verify(PayrollBatch batch) {
+        return verify(batch, 0);
+    }
+
+    // toleranceCents allows for sources that round differently; 0 means exact to the cent
+    public Verification verify(PayrollBatch batch, long toleranceCents) {
+        Verification verification = new Verification(batch.size());
+        int chunks = (batch.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks <= 1) {
+            verifyRange(batch, 0, batch.size(), toleranceCents, verification);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> verifyRange(batch,
+                    chunk * CHUNK_SIZE, Math.min(batch.size(), (chunk + 1) * CHUNK_SIZE), toleranceCents, verification));
+        }
+        return verification;
+    }
+
+    // First value of one employee that is off, or null when everything it reports is right. For record-by-record
+    // checks: nothing is allocated unless there is a mismatch.
+    public Verification.Mismatch firstMismatch(PayrollBatch batch, int index) {
+        int dependants = batch.dependants(index);
+        if (dependants < 0) {
+            return new Verification.Mismatch(batch.id(index), index, "dependants", 0, dependants);
+        }
+        if (differs(salaryCents(), batch.salary(index), 0)) {
+            return new Verification.Mismatch(batch.id(index), index, "salary", salaryCents(), batch.salary(index));
+        }
+        if (differs(grossCents, batch.gross(index), 0)) {
+            return new Verification.Mismatch(batch.id(index), index, "gross", grossCents, batch.gross(index));
+        }
+        if (differs(benefitsCostCents(dependants), batch.benefitsCost(index), 0)) {
+            return new Verification.Mismatch(batch.id(index), index, "benefitsCost", benefitsCostCents(dependants), batch.benefitsCost(index));
+        }
+        if (differs(netPayCents(dependants), batch.net(index), 0)) {
+            return new Verification.Mismatch(batch.id(index), index, "net", netPayCents(dependants), batch.net(index));
+        }
+        return null;
+    }
+
+    private void verifyRange(PayrollBatch batch, int from, int to, long toleranceCents, Verification verification) {
+        long salary = salaryCents();
+        for (int i = from; i < to; i++) {
+            int dependants = batch.dependants(i);
+            if (dependants < 0) {
+                verification.mismatch(batch, i, "dependants", 0, dependants);
+                continue;
+            }
+            check(batch, i, "salary", salary, batch.salary(i), toleranceCents, verification);
+            check(batch, i, "gross", grossCents, batch.gross(i), toleranceCents, verification);
+            check(batch, i, "benefitsCost", benefitsCostCents(dependants), batch.benefitsCost(i), toleranceCents, verification);
+            check(batch, i, "net", netPayCents(dependants), batch.net(i), toleranceCents, verification);
+        }
+    }
+
+    private static void check(PayrollBatch batch, int index, String field, long expected, long actual,
+                              long toleranceCents, Verification verification) {
+        if (differs(expected, actual, toleranceCents)) {
+            verification.mismatch(batch, index, field, expected, actual);
+        }
+    }
+
+    private static boolean differs(long expected, long actual, long toleranceCents) {
+        return actual != PayrollBatch.NOT_REPORTED && Math.abs(actual - expected) > toleranceCents;
+    }
+
+    private long annualCostCents(int dependants) {
+        return employeeCostCents + dependantCostCents * dependants;
+    }
+
+    private static long roundHalfUp(long numerator, long denominator) {
+        return Math.floorDiv(2 * numerator + denominator, 2 * denominator);
+    }
+}
@@ -0,0 +1,102 @@
+package benefits;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+// Employees to verify, stored column-wise in primitive arrays so a batch of 100k employees is a handful
+// of arrays rather than 100k objects. Amounts are in cents; NOT_REPORTED marks a value the source did not have.
+public final class PayrollBatch {
+    public static final long NOT_REPORTED = Long.MIN_VALUE;
+
+    private String[] ids;
+    private int[] dependants;
+    private long[] salary;
+    private long[] gross;
+    private long[] benefitsCost;
+    private long[] net;
+    private int size;
+
+    public PayrollBatch() {
+        this(16);
+    }
+
+    public PayrollBatch(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        ids = new String[capacity];
+        dependants = new int[capacity];
+        salary = new long[capacity];
+        gross = new long[capacity];
+        benefitsCost = new long[capacity];
+        net = new long[capacity];
+    }
+
+    public PayrollBatch add(String id, int dependantCount, long salaryCents, long grossCents,
+                            long benefitsCostCents, long netCents) {
+        if (size == dependants.length) {
+            grow();
+        }
+        ids[size] = id;
+        dependants[size] = dependantCount;
+        salary[size] = salaryCents;
+        gross[size] = grossCents;
+        benefitsCost[size] = benefitsCostCents;
+        net[size] = netCents;
+        size++;
+        return this;
+    }
+
+    // Keeps the arrays, so a batch can be refilled without allocating
+    public void clear() {
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int index) {
+        return ids[index];
+    }
+
+    public int dependants(int index) {
+        return dependants[index];
+    }
+
+    public long salary(int index) {
+        return salary[index];
+    }
+
+    public long gross(int index) {
+        return gross[index];
+    }
+
+    public long benefitsCost(int index) {
+        return benefitsCost[index];
+    }
+
+    public long net(int index) {
+        return net[index];
+    }
+
+    // Dollar amounts as the API returns them (unrounded doubles), rounded half-up to cents
+    public static long cents(double dollars) {
+        return Double.isFinite(dollars) ? Math.round(dollars * 100) : NOT_REPORTED;
+    }
+
+    // Dollar amounts as the dashboard displays them; null means not reported
+    public static long cents(BigDecimal dollars) {
+        return dollars == null ? NOT_REPORTED : dollars.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private void grow() {
+        int capacity = dependants.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        dependants = Arrays.copyOf(dependants, capacity);
+        salary = Arrays.copyOf(salary, capacity);
+        gross = Arrays.copyOf(gross, capacity);
+        benefitsCost = Arrays.copyOf(benefitsCost, capacity);
+        net = Arrays.copyOf(net, capacity);
+    }
+}
@@ -0,0 +1,104 @@
+package benefits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outcome of BenefitsEngine.verify: how many values disagreed, with the first few kept for the failure message
+public final class Verification {
+    private static final int MAX_SAMPLES = 20;
+
+    private final int checked;
+    private final AtomicLong mismatches = new AtomicLong();
+    private final List<Mismatch> samples = new ArrayList<>();
+
+    Verification(int checked) {
+        this.checked = checked;
+    }
+
+    void mismatch(PayrollBatch batch, int index, String field, long expected, long actual) {
+        mismatches.incrementAndGet();
+        synchronized (samples) {
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(new Mismatch(batch.id(index), index, field, expected, actual));
+            }
+        }
+    }
+
+    public boolean isClean() {
+        return mismatches.get() == 0;
+    }
+
+    public int getChecked() {
+        return checked;
+    }
+
+    public long getMismatches() {
+        return mismatches.get();
+    }
+
+    public List<Mismatch> getSamples() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder()
+                .append(mismatches.get()).append(" mismatches in ").append(checked).append(" employees");
+        for (Mismatch mismatch : getSamples()) {
+            text.append("\n  ").append(mismatch);
+        }
+        return text.toString();
+    }
+
+    public static final class Mismatch {
+        private final String id;
+        private final int index;
+        private final String field;
+        private final long expectedCents;
+        private final long actualCents;
+
+        Mismatch(String id, int index, String field, long expectedCents, long actualCents) {
+            this.id = id;
+            this.index = index;
+            this.field = field;
+            this.expectedCents = expectedCents;
+            this.actualCents = actualCents;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public long getExpectedCents() {
+            return expectedCents;
+        }
+
+        public long getActualCents() {
+            return actualCents;
+        }
+
+        @Override
+        public String toString() {
+            return (id == null ? "#" + index : id) + " " + field + ": expected " + format(expectedCents)
+                    + ", got " + format(actualCents);
+        }
+
+        private String format(long cents) {
+            if ("dependants".equals(field)) {
+                return Long.toString(cents);
+            }
+            return (cents < 0 ? "-" : "") + Math.abs(cents) / 100 + "." + String.format("%02d", Math.abs(cents) % 100);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package tests;
+
+import benefits.BenefitsEngine;
+import benefits.PayrollBatch;
+import benefits.Verification;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+
+public class BenefitsEngineTest {
+    private static final BenefitsEngine ENGINE = BenefitsEngine.STANDARD;
+
+    @Test
+    @DisplayName("Per-paycheck amounts match the documented examples")
+    void computesDocumentedExamples() {
+        Assertions.assertEquals(52000_00, ENGINE.salaryCents());
+        Assertions.assertEquals(2000_00, ENGINE.grossCents());
+        // $1000 / 26 = $38.46, net $1961.54
+        Assertions.assertEquals(3846, ENGINE.benefitsCostCents(0));
+        Assertions.assertEquals(1961_54, ENGINE.netPayCents(0));
+        // ($1000 + 2 x $500) / 26 = $76.92, net $1923.08
+        Assertions.assertEquals(7692, ENGINE.benefitsCostCents(2));
+        Assertions.assertEquals(1923_08, ENGINE.netPayCents(2));
+    }
+
+    @Test
+    @DisplayName("Values from the API and the dashboard convert to the same cents")
+    void convertsSourceValuesToCents() {
+        Assertions.assertEquals(3846, PayrollBatch.cents(38.46153846153846));
+        Assertions.assertEquals(1961_54, PayrollBatch.cents(1961.5384615384614));
+        Assertions.assertEquals(3846, PayrollBatch.cents(new BigDecimal("38.46")));
+        Assertions.assertEquals(PayrollBatch.NOT_REPORTED, PayrollBatch.cents((BigDecimal) null));
+    }
+
+    @Test
+    @DisplayName("A large batch verifies clean and reports only the wrong values")
+    void verifiesLargeBatch() {
+        int size = 100_000;
+        PayrollBatch batch = new PayrollBatch(size);
+        for (int i = 0; i < size; i++) {
+            int dependants = i % 11;
+            long benefitsCost = i == 54_321 ? ENGINE.benefitsCostCents(dependants) + 1 : ENGINE.benefitsCostCents(dependants);
+            batch.add("e" + i, dependants, ENGINE.salaryCents(), ENGINE.grossCents(), benefitsCost, ENGINE.netPayCents(dependants));
+        }
+
+        Verification verification = ENGINE.verify(batch);
+
+        Assertions.assertEquals(size, verification.getChecked());
+        Assertions.assertEquals(1, verification.getMismatches(), verification.toString());
+        Verification.Mismatch mismatch = verification.getSamples().get(0);
+        Assertions.assertEquals("e54321", mismatch.getId());
+        Assertions.assertEquals("benefitsCost", mismatch.getField());
+        Assertions.assertTrue(ENGINE.verify(batch, 1).isClean());
+    }
+
+    @Test
+    @DisplayName("A single employee is checked up to its first wrong value")
+    void findsFirstMismatch() {
+        PayrollBatch batch = new PayrollBatch()
+                .add("a1", 2, ENGINE.salaryCents(), ENGINE.grossCents(), ENGINE.benefitsCostCents(2), ENGINE.netPayCents(2))
+                .add("b2", 2, ENGINE.salaryCents(), ENGINE.grossCents(), ENGINE.benefitsCostCents(2) + 1, 1_00)
+                .add("c3", -1, PayrollBatch.NOT_REPORTED, PayrollBatch.NOT_REPORTED, PayrollBatch.NOT_REPORTED, PayrollBatch.NOT_REPORTED);
+
+        Assertions.assertNull(ENGINE.firstMismatch(batch, 0));
+        Verification.Mismatch mismatch = ENGINE.firstMismatch(batch, 1);
+        Assertions.assertEquals("b2", mismatch.getId());
+        Assertions.assertEquals("benefitsCost", mismatch.getField());
+        Assertions.assertEquals("dependants", ENGINE.firstMismatch(batch, 2).getField());
+    }
+
+    @Test
+    @DisplayName("Values the source does not report are skipped")
+    void skipsUnreportedValues() {
+        PayrollBatch batch = new PayrollBatch().add("a1", 3, PayrollBatch.NOT_REPORTED, ENGINE.grossCents(),
+                ENGINE.benefitsCostCents(3), PayrollBatch.NOT_REPORTED);
+
+        Assertions.assertTrue(ENGINE.verify(batch).isClean());
+    }
+}
@@ -0,0 +1,87 @@
+package stub;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory employees per user, in insertion order like the live table
+class EmployeeStore {
+    static final int SALARY = 52000;
+    static final int GROSS = 2000;
+    static final int PAYCHECKS = 26;
+
+    private final Map<String, Map<String, Map<String, Object>>> byUser = new ConcurrentHashMap<>();
+
+    List<Map<String, Object>> list(String username) {
+        Map<String, Map<String, Object>> employees = employees(username);
+        synchronized (employees) {
+            return new ArrayList<>(employees.values());
+        }
+    }
+
+    Map<String, Object> get(String username, String id) {
+        Map<String, Map<String, Object>> employees = employees(username);
+        synchronized (employees) {
+            return employees.get(id);
+        }
+    }
+
+    Map<String, Object> create(String username, String firstName, String lastName, int dependants) {
+        String id = UUID.randomUUID().toString();
+        Map<String, Object> employee = employee(username, id, firstName, lastName, dependants);
+        Map<String, Map<String, Object>> employees = employees(username);
+        synchronized (employees) {
+            employees.put(id, employee);
+        }
+        return employee;
+    }
+
+    // Updates keep the id and position, like the dashboard's edit modal
+    Map<String, Object> update(String username, String id, String firstName, String lastName, int dependants) {
+        Map<String, Map<String, Object>> employees = employees(username);
+        synchronized (employees) {
+            if (!employees.containsKey(id)) {
+                return null;
+            }
+            Map<String, Object> employee = employee(username, id, firstName, lastName, dependants);
+            employees.put(id, employee);
+            return employee;
+        }
+    }
+
+    boolean delete(String username, String id) {
+        Map<String, Map<String, Object>> employees = employees(username);
+        synchronized (employees) {
+            return employees.remove(id) != null;
+        }
+    }
+
+    void clear() {
+        byUser.clear();
+    }
+
+    private Map<String, Map<String, Object>> employees(String username) {
+        return byUser.computeIfAbsent(username, key -> new LinkedHashMap<>());
+    }
+
+    // Same fields and benefits math as the live service: (1000 + dependants * 500) / 26 per paycheck
+    static Map<String, Object> employee(String username, String id, String firstName, String lastName, int dependants) {
+        double benefitsCost = (1000.0 + dependants * 500.0) / PAYCHECKS;
+        Map<String, Object> employee = new LinkedHashMap<>();
+        employee.put("partitionKey", username);
+        employee.put("sortKey", id);
+        employee.put("username", username);
+        employee.put("id", id);
+        employee.put("firstName", firstName);
+        employee.put("lastName", lastName);
+        employee.put("dependants", dependants);
+        employee.put("salary", SALARY);
+        employee.put("gross", GROSS);
+        employee.put("benefitsCost", benefitsCost);
+        employee.put("net", GROSS - benefitsCost);
+        return employee;
+    }
+}
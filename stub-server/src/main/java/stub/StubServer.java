@@ -0,0 +1,301 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// In-process stand-in for the Benefits Dashboard: the Account/Login flow, the dashboard page with the
+// #employeesTable/#employeeModal/#deleteModal markup the page objects use, and the /Api/Employees contract.
+// Listens on loopback, on an ephemeral port unless one is given.
+public class StubServer implements AutoCloseable {
+    static final String CONTEXT = "/Prod";
+    static final String SESSION_COOKIE = ".AspNetCore.Cookies";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final EmployeeStore store = new EmployeeStore();
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final String username;
+    private final String password;
+    private final String loginPage;
+    private final String dashboardPage;
+
+    private StubServer(int port, String username, String password) throws IOException {
+        this.username = username;
+        this.password = password;
+        this.loginPage = resource("login.html");
+        this.dashboardPage = resource("dashboard.html");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static StubServer start() {
+        return start(Integer.getInteger("stub.port", 0),
+                System.getProperty("test.username", "TestUser773"),
+                System.getProperty("test.password", "6q0]l$BKOUb!"));
+    }
+
+    public static StubServer start(int port, String username, String password) {
+        try {
+            StubServer stub = new StubServer(port, username, password);
+            stub.server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stub server on port " + port, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        StubServer stub = start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Stub Benefits Dashboard listening on " + stub.getBaseUrl());
+    }
+
+    // e.g. http://127.0.0.1:54321/Prod - drop-in replacement for base.url
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + CONTEXT;
+    }
+
+    public String getLoginUrl() {
+        return getBaseUrl() + "/Account/Login";
+    }
+
+    // Bulk-creates employees for the configured user without going through HTTP
+    public void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            store.create(username, "Seed", "S" + i, i % 6);
+        }
+    }
+
+    public void reset() {
+        store.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (!path.startsWith(CONTEXT + "/")) {
+                send(exchange, 404, "text/plain", "Not Found");
+            } else if (path.regionMatches(true, CONTEXT.length(), "/Api/Employees", 0, "/Api/Employees".length())) {
+                handleApi(exchange, method, path.substring(CONTEXT.length() + "/Api/Employees".length()));
+            } else if (path.equals(CONTEXT + "/Account/Login")) {
+                handleLogin(exchange, method);
+            } else if (path.equals(CONTEXT + "/Account/LogOut")) {
+                sessionToken(exchange).ifPresent(sessions::remove);
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+                redirect(exchange, CONTEXT + "/Account/Login");
+            } else if (path.equals(CONTEXT + "/Benefits") || path.equals(CONTEXT + "/")) {
+                if (sessionUser(exchange) == null) {
+                    redirect(exchange, CONTEXT + "/Account/Login");
+                } else {
+                    send(exchange, 200, "text/html; charset=utf-8", dashboardPage);
+                }
+            } else {
+                send(exchange, 404, "text/plain", "Not Found");
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, "text/plain", String.valueOf(e));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange, String method) throws IOException {
+        if ("GET".equals(method)) {
+            send(exchange, 200, "text/html; charset=utf-8", loginPage.replace("{{token}}", UUID.randomUUID().toString()));
+            return;
+        }
+        if (!"POST".equals(method)) {
+            send(exchange, 405, "text/plain", "");
+            return;
+        }
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (!username.equals(form.get("Username")) || !password.equals(form.get("Password"))) {
+            // The live login answers bad credentials with 405 and an empty body
+            send(exchange, 405, "text/plain", "");
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, username);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly; Max-Age=1800");
+        redirect(exchange, CONTEXT + "/Benefits");
+    }
+
+    private void handleApi(HttpExchange exchange, String method, String rest) throws IOException {
+        String user = apiUser(exchange);
+        if (user == null) {
+            send(exchange, 401, "application/json", "{\"message\":\"Unauthorized\"}");
+            return;
+        }
+        String id = rest.startsWith("/") ? rest.substring(1) : rest;
+
+        if (id.isEmpty()) {
+            switch (method) {
+                case "GET":
+                    sendJson(exchange, 200, store.list(user));
+                    return;
+                case "POST":
+                case "PUT":
+                    Map<String, Object> saved = saveEmployee(exchange, user, "PUT".equals(method));
+                    if (saved != null) {
+                        sendJson(exchange, 200, saved);
+                    }
+                    return;
+                default:
+                    send(exchange, 405, "application/json", "{\"message\":\"Method Not Allowed\"}");
+                    return;
+            }
+        }
+
+        switch (method) {
+            case "GET":
+                Map<String, Object> employee = store.get(user, id);
+                if (employee == null) {
+                    send(exchange, 404, "application/json", "{\"message\":\"Not Found\"}");
+                } else {
+                    sendJson(exchange, 200, employee);
+                }
+                return;
+            case "DELETE":
+                // The live service answers 200 whether or not the id existed
+                store.delete(user, id);
+                send(exchange, 200, "application/json", "");
+                return;
+            default:
+                // PUT /Api/Employees/{id} is not supported by the live service either; the dashboard
+                // updates through PUT /Api/Employees with the id in the body
+                send(exchange, 405, "application/json", "{\"message\":\"Method Not Allowed\"}");
+        }
+    }
+
+    // Validates a POST/PUT body and stores it; sends the error and returns null when it is not a valid employee
+    private Map<String, Object> saveEmployee(HttpExchange exchange, String user, boolean update) throws IOException {
+        JsonNode body;
+        try {
+            body = MAPPER.readTree(exchange.getRequestBody());
+        } catch (IOException e) {
+            send(exchange, 400, "application/json", "{\"message\":\"Invalid JSON\"}");
+            return null;
+        }
+        String firstName = body == null ? "" : body.path("firstName").asText("").trim();
+        String lastName = body == null ? "" : body.path("lastName").asText("").trim();
+        JsonNode dependants = body == null ? null : body.get("dependants");
+        if (firstName.isEmpty() || lastName.isEmpty() || firstName.length() > 50 || lastName.length() > 50
+                || dependants == null || !dependants.canConvertToInt()
+                || dependants.asInt() < 0 || dependants.asInt() > 32) {
+            send(exchange, 400, "application/json", "{\"message\":\"Invalid employee\"}");
+            return null;
+        }
+        if (!update) {
+            return store.create(user, firstName, lastName, dependants.asInt());
+        }
+        Map<String, Object> updated = store.update(user, body.path("id").asText(), firstName, lastName, dependants.asInt());
+        if (updated == null) {
+            send(exchange, 404, "application/json", "{\"message\":\"Not Found\"}");
+        }
+        return updated;
+    }
+
+    // The API accepts the Basic credentials used by the Postman collection or the dashboard's session cookie
+    private String apiUser(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String decoded = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+            return decoded.equals(username + ":" + password) ? username : null;
+        }
+        return sessionUser(exchange);
+    }
+
+    private String sessionUser(HttpExchange exchange) {
+        return sessionToken(exchange).map(sessions::get).orElse(null);
+    }
+
+    private static Optional<String> sessionToken(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers != null) {
+            for (String header : headers) {
+                for (String cookie : header.split(";")) {
+                    String[] pair = cookie.trim().split("=", 2);
+                    if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                        return Optional.of(pair[1]);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8), URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, "application/json", MAPPER.writeValueAsString(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = StubServer.class.getResourceAsStream("/stub/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing stub resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package stub;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+// Starts the stub server before any test class is loaded when stub.server=true, and points
+// base.url/login.url at it so page objects and API clients pick it up unchanged.
+public class StubServerSessionListener implements LauncherSessionListener {
+    private StubServer server;
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        if (!Boolean.getBoolean("stub.server")) {
+            return;
+        }
+        server = StubServer.start();
+        server.seed(Integer.getInteger("stub.seed", 5));
+        System.setProperty("base.url", server.getBaseUrl());
+        System.setProperty("login.url", server.getLoginUrl());
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
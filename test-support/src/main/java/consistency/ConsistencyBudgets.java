@@ -0,0 +1,56 @@
+package consistency;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+// How long a write to /Api/Employees takes to become visible to reads, as measured by load.ConsistencyProbe
+// and written to consistency-budgets.properties (consistency.budgets). Keys:
+//   create.item  POST until GET /Api/Employees/{id} returns it     create.list  POST until GET /Api/Employees lists it
+//   delete.item  DELETE until GET /Api/Employees/{id} returns 404  delete.list  DELETE until it is no longer listed
+// Without a measurement every budget is zero, i.e. reads are expected to see writes immediately.
+// Shared by api-tests (ApiClient.getUntil, the probe itself) and ui-tests (EmployeeFixtures, DashboardPage).
+public final class ConsistencyBudgets {
+    public static final String CREATE_ITEM = "create.item";
+    public static final String CREATE_LIST = "create.list";
+    public static final String DELETE_ITEM = "delete.item";
+    public static final String DELETE_LIST = "delete.list";
+
+    private static final ConsistencyBudgets MEASURED = load(Paths.get(System.getProperty("consistency.budgets", "../consistency-budgets.properties")));
+
+    private final Properties budgets;
+
+    private ConsistencyBudgets(Properties budgets) {
+        this.budgets = budgets;
+    }
+
+    public static ConsistencyBudgets measured() {
+        return MEASURED;
+    }
+
+    static ConsistencyBudgets load(Path file) {
+        Properties budgets = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                budgets.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + file, e);
+            }
+        }
+        return new ConsistencyBudgets(budgets);
+    }
+
+    public Duration get(String key) {
+        return Duration.ofMillis(Long.parseLong(budgets.getProperty(key, "0").trim()));
+    }
+
+    // Interval the probe polled at; waiting on a budget polls no faster than this
+    public Duration pollInterval() {
+        return Duration.ofMillis(Long.parseLong(budgets.getProperty("pollMillis", "25").trim()));
+    }
+}
@@ -0,0 +1,67 @@
+package namespace;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Names test employees after the run and the worker thread that created them, e.g. "Doe-tj3k2a-8f2kw3":
+// start of the run in base-36 epoch seconds, a random run suffix and the worker number. Parallel workers,
+// and concurrent runs against the shared tenant, never match each other's rows by name, tests can count
+// just their own rows, and OrphanJanitor can tell how old a leftover employee is. Shared by everything that
+// creates employees on the tenant: the UI suite, the consistency probe and the load generator.
+public final class TestNamespace {
+    private static final Pattern TAG = Pattern.compile("-([0-9a-z]+)-([0-9a-z]{4})w(\\d+)$");
+    private static final long RUN_STARTED = Instant.now().getEpochSecond();
+    private static final String RUN_ID = Long.toString(RUN_STARTED, 36) + "-" + randomSuffix();
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+    private static final ThreadLocal<String> WORKER_TAG =
+            ThreadLocal.withInitial(() -> "-" + RUN_ID + "w" + WORKERS.incrementAndGet());
+
+    private TestNamespace() {
+    }
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    // Last name owned by the current worker, e.g. name("Doe")
+    public static String name(String base) {
+        return base + WORKER_TAG.get();
+    }
+
+    // Created by the current worker of this run
+    public static boolean isOwn(String lastName) {
+        return lastName != null && lastName.endsWith(WORKER_TAG.get());
+    }
+
+    // Created by any worker of this run
+    public static boolean isThisRun(String lastName) {
+        Matcher matcher = lastName == null ? null : TAG.matcher(lastName);
+        return matcher != null && matcher.find() && RUN_ID.equals(matcher.group(1) + "-" + matcher.group(2));
+    }
+
+    // When the run that created the employee started; empty for names not made by name()
+    public static Optional<Instant> runStarted(String lastName) {
+        Matcher matcher = lastName == null ? null : TAG.matcher(lastName);
+        if (matcher == null || !matcher.find()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.ofEpochSecond(Long.parseLong(matcher.group(1), 36)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String randomSuffix() {
+        SecureRandom random = new SecureRandom();
+        StringBuilder suffix = new StringBuilder(4);
+        for (int i = 0; i < 4; i++) {
+            suffix.append(Character.forDigit(random.nextInt(36), 36));
+        }
+        return suffix.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import org.openqa.selenium.WebDriver;
+import org.openjdk.jmh.annotations.*;
+import pages.DashboardPage;
+import stub.StubServer;
+import utils.AuthSession;
+import utils.DriverManager;
+import utils.RoundTripCounter;
+
+import java.util.concurrent.TimeUnit;
+
+// Page-object operations against the stub dashboard with a growing employees table.
+// Besides time, every benchmark reports roundTrips and operations; their ratio is the
+// number of WebDriver commands one call costs.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardPageBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int rows;
+
+    StubServer server;
+    WebDriver driver;
+    DashboardPage dashboardPage;
+    RoundTripCounter counter;
+    String lastFirstName;
+    String lastLastName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Page objects and AuthSession read the URLs when they are created or log in
+        server = StubServer.start();
+        server.seed(rows);
+        System.setProperty("base.url", server.getBaseUrl());
+        System.setProperty("login.url", server.getLoginUrl());
+
+        counter = new RoundTripCounter();
+        driver = counter.decorate(DriverManager.getDriver());
+        AuthSession.openDashboard(driver);
+        dashboardPage = new DashboardPage(driver);
+
+        // Worst case for lookups: the employee in the last row
+        lastFirstName = "Seed";
+        lastLastName = "S" + (rows - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DriverManager.quitDriver();
+        server.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+        public long operations;
+
+        void add(long commands) {
+            roundTrips += commands;
+            operations++;
+        }
+    }
+
+    // Keeps the add modal open for fillEmployeeForm
+    @State(Scope.Thread)
+    public static class OpenModal {
+        @Setup(Level.Trial)
+        public void open(DashboardPageBenchmark benchmark) {
+            benchmark.dashboardPage.clickAddEmployee();
+        }
+
+        @TearDown(Level.Trial)
+        public void close(DashboardPageBenchmark benchmark) {
+            benchmark.dashboardPage.clickCancelInModal();
+        }
+    }
+
+    // Closes the edit modal opened by each clickEditEmployee call, outside the measured section
+    @State(Scope.Thread)
+    public static class EditModal {
+        @TearDown(Level.Invocation)
+        public void close(DashboardPageBenchmark benchmark) {
+            benchmark.dashboardPage.clickCancelInModal();
+        }
+    }
+
+    @Benchmark
+    public int getEmployeeCount(RoundTrips roundTrips) {
+        long before = counter.count();
+        int count = dashboardPage.getEmployeeCount();
+        roundTrips.add(counter.count() - before);
+        return count;
+    }
+
+    @Benchmark
+    public boolean isEmployeeInTable(RoundTrips roundTrips) {
+        long before = counter.count();
+        boolean found = dashboardPage.isEmployeeInTable(lastFirstName, lastLastName);
+        roundTrips.add(counter.count() - before);
+        return found;
+    }
+
+    @Benchmark
+    public void clickEditEmployee(RoundTrips roundTrips, EditModal editModal) {
+        long before = counter.count();
+        dashboardPage.clickEditEmployee(lastFirstName, lastLastName);
+        roundTrips.add(counter.count() - before);
+    }
+
+    @Benchmark
+    public void fillEmployeeForm(RoundTrips roundTrips, OpenModal openModal) {
+        long before = counter.count();
+        dashboardPage.fillEmployeeForm("Bench", "Mark", "2");
+        roundTrips.add(counter.count() - before);
+    }
+}
@@ -0,0 +1,117 @@
+package api;
+
+import benefits.PayrollBatch;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Employee as exposed by /Api/Employees. Drafts (no id yet) are what gets POSTed.
+public final class Employee {
+    private final String id;
+    private final String firstName;
+    private final String lastName;
+    private final int dependants;
+    private final BigDecimal salary;
+    private final BigDecimal gross;
+    private final BigDecimal benefitsCost;
+    private final BigDecimal net;
+    private final String username;
+
+    private Employee(String id, String firstName, String lastName, int dependants, BigDecimal salary,
+                     BigDecimal gross, BigDecimal benefitsCost, BigDecimal net, String username) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.dependants = dependants;
+        this.salary = salary;
+        this.gross = gross;
+        this.benefitsCost = benefitsCost;
+        this.net = net;
+        this.username = username;
+    }
+
+    public static Employee draft(String firstName, String lastName, int dependants) {
+        return new Employee(null, firstName, lastName, dependants, null, null, null, null, null);
+    }
+
+    static Employee fromJson(Map<String, Object> json) {
+        return new Employee(
+                (String) json.get("id"),
+                (String) json.get("firstName"),
+                (String) json.get("lastName"),
+                json.get("dependants") instanceof Number ? ((Number) json.get("dependants")).intValue() : 0,
+                decimal(json.get("salary")),
+                decimal(json.get("gross")),
+                decimal(json.get("benefitsCost")),
+                decimal(json.get("net")),
+                (String) json.get("username"));
+    }
+
+    Map<String, Object> toRequestJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        if (id != null) {
+            json.put("id", id);
+        }
+        json.put("firstName", firstName);
+        json.put("lastName", lastName);
+        json.put("dependants", dependants);
+        return json;
+    }
+
+    // Employees in the form BenefitsEngine verifies
+    public static PayrollBatch toPayrollBatch(List<Employee> employees) {
+        PayrollBatch batch = new PayrollBatch(employees.size());
+        for (Employee employee : employees) {
+            batch.add(employee.id, employee.dependants, PayrollBatch.cents(employee.salary), PayrollBatch.cents(employee.gross),
+                    PayrollBatch.cents(employee.benefitsCost), PayrollBatch.cents(employee.net));
+        }
+        return batch;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof Number ? new BigDecimal(value.toString()) : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public int getDependants() {
+        return dependants;
+    }
+
+    public BigDecimal getSalary() {
+        return salary;
+    }
+
+    public BigDecimal getGross() {
+        return gross;
+    }
+
+    public BigDecimal getBenefitsCost() {
+        return benefitsCost;
+    }
+
+    public BigDecimal getNet() {
+        return net;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return (id == null ? "<draft>" : id) + " " + firstName + " " + lastName + " (" + dependants + " dependants)";
+    }
+}
@@ -0,0 +1,126 @@
+package api;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+// Blocking client for /Api/Employees, authenticated with the same Basic credentials as the Postman collection.
+// Transient failures are retried with exponential backoff: 429 always, 5xx and I/O errors only for GET, PUT
+// and DELETE. A POST that failed after it was sent may have created the employee, so it is retried only when
+// the connection could not be made in the first place.
+public class EmployeeApiClient {
+    private static final String DEFAULT_BASE_URL = "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod";
+    private static final String USERNAME = System.getProperty("test.username", "TestUser773");
+    private static final String PASSWORD = System.getProperty("test.password", "6q0]l$BKOUb!");
+    private static final int MAX_ATTEMPTS = Math.max(1, Integer.getInteger("api.retries", 3));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(Long.getLong("api.timeout", 30));
+
+    private static final Json JSON = new Json();
+
+    private final HttpClient client;
+    private final URI employeesUri;
+    private final String authorization;
+
+    // base.url is read per client, since the stub server sets it when the launcher session opens
+    public EmployeeApiClient() {
+        this(System.getProperty("base.url", DEFAULT_BASE_URL), USERNAME, PASSWORD);
+    }
+
+    public EmployeeApiClient(String baseUrl, String username, String password) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.employeesUri = URI.create(baseUrl + "/Api/Employees");
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<Employee> list() {
+        List<Map<String, Object>> body = JSON.toType(send(request(employeesUri).GET(), 200).body(), Json.LIST_OF_MAPS_TYPE);
+        List<Employee> employees = new ArrayList<>(body.size());
+        for (Map<String, Object> json : body) {
+            employees.add(Employee.fromJson(json));
+        }
+        return employees;
+    }
+
+    public Employee get(String id) {
+        return Employee.fromJson(JSON.toType(send(request(employeeUri(id)).GET(), 200).body(), Json.MAP_TYPE));
+    }
+
+    public Employee create(Employee draft) {
+        HttpRequest.Builder request = request(employeesUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.toJson(draft.toRequestJson())));
+        return Employee.fromJson(JSON.toType(send(request, 200).body(), Json.MAP_TYPE));
+    }
+
+    // Returns false when the employee was already gone
+    public boolean delete(String id) {
+        return send(request(employeeUri(id)).DELETE(), 200, 404).statusCode() == 200;
+    }
+
+    private URI employeeUri(String id) {
+        return URI.create(employeesUri + "/" + id);
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder, int... expectedStatus) {
+        HttpRequest request = builder.build();
+        boolean idempotent = !"POST".equals(request.method());
+        RuntimeException failure = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                for (int status : expectedStatus) {
+                    if (response.statusCode() == status) {
+                        return response;
+                    }
+                }
+                failure = new IllegalStateException(request.method() + " " + request.uri()
+                        + " returned " + response.statusCode() + ": " + response.body());
+                if (response.statusCode() != 429 && (response.statusCode() < 500 || !idempotent)) {
+                    throw failure;
+                }
+            } catch (IOException e) {
+                failure = new IllegalStateException(request.method() + " " + request.uri() + " failed", e);
+                if (!idempotent && !(e instanceof ConnectException || e instanceof HttpConnectTimeoutException)) {
+                    throw failure;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during " + request.method() + " " + request.uri(), e);
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                backoff(attempt);
+            }
+        }
+        throw failure;
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(100L << Math.min(attempt, 6));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package api;
+
+import consistency.ConsistencyBudgets;
+import namespace.TestNamespace;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Seeds and removes employees through /Api/Employees instead of the dashboard modals.
+// Requests run in parallel, at most api.concurrency at a time, and everything seeded or adopted
+// is deleted on close() - or at JVM exit if a test never got that far (OrphanJanitor catches the rest).
+// Generated names carry the run and worker (TestNamespace) so parallel workers never share rows.
+public class EmployeeFixtures implements AutoCloseable {
+    private static final int CONCURRENCY = Integer.getInteger("api.concurrency", 16);
+    private static final ExecutorService EXECUTOR = newExecutor();
+    private static final Set<String> UNRELEASED = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EmployeeFixtures::deleteUnreleased, "employee-fixtures-cleanup"));
+    }
+
+    private final EmployeeApiClient api;
+    private final Semaphore permits = new Semaphore(CONCURRENCY);
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+
+    public EmployeeFixtures() {
+        this(new EmployeeApiClient());
+    }
+
+    public EmployeeFixtures(EmployeeApiClient api) {
+        this.api = api;
+    }
+
+    // One employee per entry, e.g. seed(0, 2, 5) creates three employees with 0, 2 and 5 dependants
+    public List<Employee> seed(int... dependants) {
+        List<Employee> drafts = new ArrayList<>(dependants.length);
+        for (int count : dependants) {
+            drafts.add(Employee.draft("Fixture", TestNamespace.name("F" + SEQUENCE.incrementAndGet()), count));
+        }
+        return seed(drafts);
+    }
+
+    public Employee seed(String firstName, String lastName, int dependants) {
+        return seed(List.of(Employee.draft(firstName, lastName, dependants))).get(0);
+    }
+
+    // Returns the created employees in the same order as the drafts, once the employee list shows them
+    public List<Employee> seed(List<Employee> drafts) {
+        List<Callable<Employee>> tasks = new ArrayList<>(drafts.size());
+        for (Employee draft : drafts) {
+            tasks.add(() -> {
+                Employee created = api.create(draft);
+                adopt(created.getId());
+                return created;
+            });
+        }
+        List<Employee> created = runAll(tasks);
+        awaitListed(created, ConsistencyBudgets.measured().get(ConsistencyBudgets.CREATE_LIST));
+        return created;
+    }
+
+    // Polls the list for at most the measured create-to-list lag; the page shows the same list,
+    // so a test that opens it next sees its seeded rows
+    private void awaitListed(List<Employee> created, Duration budget) {
+        if (budget.isZero() || created.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + budget.toNanos();
+        long interval = ConsistencyBudgets.measured().pollInterval().toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            Set<String> listed = new HashSet<>();
+            api.list().forEach(employee -> listed.add(employee.getId()));
+            if (created.stream().allMatch(employee -> listed.contains(employee.getId()))) {
+                return;
+            }
+            LockSupport.parkNanos(interval);
+        }
+    }
+
+    // Registers an employee created some other way (e.g. through the UI) for cleanup
+    public void adopt(String id) {
+        owned.add(id);
+        UNRELEASED.add(id);
+    }
+
+    public void release(String id) {
+        owned.remove(id);
+        UNRELEASED.remove(id);
+    }
+
+    public EmployeeApiClient api() {
+        return api;
+    }
+
+    @Override
+    public void close() {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (String id : owned) {
+            tasks.add(() -> {
+                boolean deleted = api.delete(id);
+                release(id);
+                return deleted;
+            });
+        }
+        runAll(tasks);
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(EXECUTOR.submit(() -> {
+                permits.acquire();
+                try {
+                    return task.call();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for fixture requests", e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            IllegalStateException failure = new IllegalStateException(
+                    failures.size() + " of " + tasks.size() + " fixture requests failed");
+            failures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+        return results;
+    }
+
+    private static void deleteUnreleased() {
+        EmployeeApiClient api = new EmployeeApiClient();
+        Arrays.stream(UNRELEASED.toArray(new String[0])).parallel().forEach(id -> {
+            try {
+                api.delete(id);
+            } catch (RuntimeException e) {
+                System.err.println("Could not delete fixture employee " + id + ": " + e.getMessage());
+            }
+        });
+    }
+
+    // Virtual threads when the runtime has them (Java 21+), otherwise a plain daemon pool;
+    // either way the per-instance semaphore is what bounds the number of requests in flight
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "employee-fixtures");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
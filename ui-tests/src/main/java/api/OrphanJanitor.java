@@ -0,0 +1,57 @@
+package api;
+
+import namespace.TestNamespace;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+// Deletes employees that earlier runs created (TestNamespace names) but never cleaned up, e.g. after a
+// crashed JVM. Runs in the background while the suite starts; rows of a run younger than
+// api.janitor.minAgeMinutes are left alone, since that run may still be going on another machine.
+public final class OrphanJanitor {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("api.janitor", "true"));
+    private static final Duration MIN_AGE = Duration.ofMinutes(Long.getLong("api.janitor.minAgeMinutes", 60));
+
+    private OrphanJanitor() {
+    }
+
+    // Sweeps on a daemon thread; the future completes with the number of employees deleted
+    public static CompletableFuture<Integer> start() {
+        if (!ENABLED) {
+            return CompletableFuture.completedFuture(0);
+        }
+        CompletableFuture<Integer> sweep = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                sweep.complete(sweep(new EmployeeApiClient()));
+            } catch (RuntimeException e) {
+                System.err.println("Orphan janitor failed: " + e.getMessage());
+                sweep.completeExceptionally(e);
+            }
+        }, "orphan-janitor");
+        thread.setDaemon(true);
+        thread.start();
+        return sweep;
+    }
+
+    static int sweep(EmployeeApiClient api) {
+        Instant cutoff = Instant.now().minus(MIN_AGE);
+        List<String> orphans = api.list().stream()
+                .filter(employee -> !TestNamespace.isThisRun(employee.getLastName()))
+                .filter(employee -> TestNamespace.runStarted(employee.getLastName()).map(cutoff::isAfter).orElse(false))
+                .map(Employee::getId)
+                .collect(Collectors.toList());
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        // Deleted concurrently, api.concurrency at a time, like any other fixture
+        try (EmployeeFixtures fixtures = new EmployeeFixtures(api)) {
+            orphans.forEach(fixtures::adopt);
+        }
+        System.out.println("Orphan janitor deleted " + orphans.size() + " employees left by earlier runs");
+        return orphans.size();
+    }
+}
@@ -0,0 +1,204 @@
+package pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Outcome of a bulk /Api/Employees operation sent from inside the dashboard page (see run()), one Item per
+// requested employee in request order. A failed item does not stop the others.
+public final class BulkResult {
+    // Concurrent requests from the page, and requests started per second across all of them
+    private static final int CONCURRENCY = Math.max(1, Integer.getInteger("api.bulk.concurrency", 8));
+    private static final double RATE = Math.max(0.1, Double.parseDouble(System.getProperty("api.bulk.rate", "20")));
+    private static final int MAX_ATTEMPTS = Math.max(1, Integer.getInteger("api.retries", 3));
+
+    // arguments: API path, method (POST or DELETE), items (employee JSON, or {id} for DELETE), concurrency,
+    // requests per second, attempts per item. Requests use the page's own session cookie (and the Authorization
+    // header the page set up for jQuery.ajax, if any); 429 is retried, honouring Retry-After. 5xx responses and
+    // network errors are retried for DELETE only: a POST that failed that way may still have created the
+    // employee, and fetch cannot tell whether the request reached the server.
+    private static final String BULK_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "var api = arguments[0], method = arguments[1], items = arguments[2];" +
+            "var concurrency = arguments[3], interval = 1000 / arguments[4], maxAttempts = arguments[5];" +
+            "var headers = {'Accept': 'application/json'};" +
+            "var ajax = window.jQuery && window.jQuery.ajaxSettings;" +
+            "if (ajax && ajax.headers && ajax.headers.Authorization) { headers.Authorization = ajax.headers.Authorization; }" +
+            "var results = new Array(items.length), next = 0, slot = 0;" +
+            "function sleep(ms) { return new Promise(function(resolve) { setTimeout(resolve, ms); }); }" +
+            "function throttle() {" +
+            "  var now = performance.now(), start = Math.max(now, slot);" +
+            "  slot = start + interval;" +
+            "  return sleep(start - now);" +
+            "}" +
+            "function backoff(attempt, retryAfter) {" +
+            "  var seconds = parseFloat(retryAfter);" +
+            "  return sleep(isNaN(seconds) ? 100 * Math.pow(2, attempt) : seconds * 1000);" +
+            "}" +
+            "function send(item, attempt, started) {" +
+            "  return throttle().then(function() {" +
+            "    if (started === null) { started = performance.now(); }" +
+            "    var init = {method: method, credentials: 'same-origin', headers: Object.assign({}, headers)};" +
+            "    var url = api;" +
+            "    if (method === 'DELETE') {" +
+            "      url += '/' + encodeURIComponent(item.id);" +
+            "    } else {" +
+            "      init.headers['Content-Type'] = 'application/json';" +
+            "      init.body = JSON.stringify(item);" +
+            "    }" +
+            "    return fetch(url, init).then(function(response) {" +
+            "      return response.text().then(function(text) {" +
+            "        var retry = response.status === 429 || (method !== 'POST' && response.status >= 500);" +
+            "        if (retry && attempt < maxAttempts) {" +
+            "          return backoff(attempt, response.headers.get('Retry-After')).then(function() { return send(item, attempt + 1, started); });" +
+            "        }" +
+            "        var ok = response.ok || (method === 'DELETE' && response.status === 404);" +
+            "        var body = null;" +
+            "        try { body = text ? JSON.parse(text) : null; } catch (e) {}" +
+            "        var id = method === 'DELETE' ? item.id : (body && body.id) || null;" +
+            "        return {ok: ok, status: response.status, attempts: attempt, id: id," +
+            "                error: ok ? null : text.slice(0, 300), ms: performance.now() - started};" +
+            "      });" +
+            "    }, function(error) {" +
+            "      if (method !== 'POST' && attempt < maxAttempts) {" +
+            "        return backoff(attempt, null).then(function() { return send(item, attempt + 1, started); });" +
+            "      }" +
+            "      return {ok: false, status: 0, attempts: attempt, id: item.id || null, error: String(error), ms: performance.now() - started};" +
+            "    });" +
+            "  });" +
+            "}" +
+            "function worker() {" +
+            "  if (next >= items.length) { return Promise.resolve(); }" +
+            "  var index = next++;" +
+            "  return send(items[index], 1, null).then(function(result) { results[index] = result; return worker(); });" +
+            "}" +
+            "var workers = [];" +
+            "for (var i = 0; i < Math.min(concurrency, items.length); i++) { workers.push(worker()); }" +
+            "Promise.all(workers).then(function() { done(results); }, function(error) { done(String(error)); });";
+
+    private final List<Item> items;
+
+    private BulkResult(List<Item> items) {
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    // Sends one request per item from the page's JavaScript context; the page must be on the dashboard's origin
+    static BulkResult run(WebDriver driver, String apiPath, String method, List<Map<String, Object>> requests) {
+        if (requests.isEmpty()) {
+            return new BulkResult(List.of());
+        }
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration scriptTimeout = timeouts.getScriptTimeout();
+        // Rate limiting alone takes requests / rate seconds; allow for slow responses and retries on top
+        Duration needed = Duration.ofMillis(Math.round(requests.size() * 1000 / RATE)).plusSeconds(60);
+        timeouts.scriptTimeout(needed.compareTo(scriptTimeout) > 0 ? needed : scriptTimeout);
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(BULK_SCRIPT, apiPath, method, requests,
+                    CONCURRENCY, RATE, MAX_ATTEMPTS);
+        } finally {
+            timeouts.scriptTimeout(scriptTimeout);
+        }
+        if (!(result instanceof List)) {
+            throw new IllegalStateException(method + " " + apiPath + " bulk script failed: " + result);
+        }
+
+        List<?> results = (List<?>) result;
+        List<Item> items = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Map<?, ?> json = (Map<?, ?>) results.get(i);
+            items.add(new Item(i, Boolean.TRUE.equals(json.get("ok")), ((Number) json.get("status")).intValue(),
+                    (String) json.get("id"), ((Number) json.get("attempts")).intValue(),
+                    ((Number) json.get("ms")).doubleValue(), (String) json.get("error")));
+        }
+        return new BulkResult(items);
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<Item> getFailures() {
+        return items.stream().filter(item -> !item.isSuccessful()).collect(Collectors.toList());
+    }
+
+    public boolean isComplete() {
+        return getFailures().isEmpty();
+    }
+
+    // Ids of the employees created or deleted successfully, in request order
+    public List<String> getIds() {
+        return items.stream().filter(Item::isSuccessful).map(Item::getId).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        List<Item> failures = getFailures();
+        return (items.size() - failures.size()) + "/" + items.size() + " succeeded"
+                + (failures.isEmpty() ? "" : ", failed: " + failures);
+    }
+
+    public static final class Item {
+        private final int index;
+        private final boolean successful;
+        private final int status;
+        private final String id;
+        private final int attempts;
+        private final double millis;
+        private final String error;
+
+        private Item(int index, boolean successful, int status, String id, int attempts, double millis, String error) {
+            this.index = index;
+            this.successful = successful;
+            this.status = status;
+            this.id = id;
+            this.attempts = attempts;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        // Position in the request list
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isSuccessful() {
+            return successful;
+        }
+
+        // HTTP status of the last attempt, 0 when the request never got a response
+        public int getStatus() {
+            return status;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        // From the first request until the last response, including retries
+        public double getMillis() {
+            return millis;
+        }
+
+        // Response body (truncated) or network error of a failed item, null otherwise
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + (id == null ? "" : " " + id) + " " + (status == 0 ? "no response" : "HTTP " + status)
+                    + " after " + attempts + " attempt(s)" + (error == null ? "" : ": " + error);
+        }
+    }
+}
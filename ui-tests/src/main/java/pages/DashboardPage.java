@@ -1,18 +1,42 @@
 package pages;
 
+import api.Employee;
+import consistency.ConsistencyBudgets;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import utils.PageAction;
+import utils.PageElements;
+import utils.PageReadiness;
+import utils.PageTelemetry;
+import utils.TimedWait;
+import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public class DashboardPage {
+    private static final String TABLE_SELECTOR = "#employeesTable";
+    private static final String DEFAULT_BASE_URL = "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod";
+
     private WebDriver driver;
     private WebDriverWait wait;
+    private PageReadiness readiness;
+    private PageElements elements;
+    private PageTelemetry telemetry;
+    // Same origin as the dashboard, so requests sent from the page carry its session. Read per page rather
+    // than once, since the stub server sets base.url when the launcher session opens.
+    private final String apiPath;
+    // Sampled once per document, on the first wait for the table
+    private boolean loadSampled;
+    // Open add/edit/delete modal, sampled until it closed and the table refreshed
+    private PageTelemetry.Span modalCycle;
 
     // Main page elements
     @FindBy(css = ".navbar-brand")
@@ -25,9 +49,6 @@ public class DashboardPage {
     @FindBy(id = "employeesTable")
     private WebElement employeesTable;
 
-    @FindBy(css = "#employeesTable tbody tr")
-    private List<WebElement> employeeRows;
-
     // Add Employee button
     @FindBy(id = "add")
     private WebElement addEmployeeButton;
@@ -73,172 +94,276 @@ public class DashboardPage {
     // Constructor
     public DashboardPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.wait = new TimedWait(driver, Duration.ofSeconds(10));
+        this.readiness = new PageReadiness(driver, Duration.ofSeconds(10));
+        // Fields are located once and reused until they go stale
+        this.elements = PageElements.init(driver, this);
+        this.telemetry = new PageTelemetry(driver);
+        this.apiPath = URI.create(System.getProperty("base.url", DEFAULT_BASE_URL)).getPath() + "/Api/Employees";
     }
 
     // Page validations
     public boolean isDashboardDisplayed() {
-        try {
+        try (PageAction action = PageAction.start("DashboardPage.isDashboardDisplayed")) {
             wait.until(ExpectedConditions.visibilityOf(employeesTable));
-            return navbarBrand.isDisplayed() &&
-                    employeesTable.isDisplayed() &&
-                    addEmployeeButton.isDisplayed();
+            // One script call locates the remaining fields and checks all three
+            return elements.allDisplayed(navbarBrand, employeesTable, addEmployeeButton);
         } catch (Exception e) {
             return false;
         }
     }
 
     public String getPageTitle() {
-        return driver.getTitle();
+        try (PageAction action = PageAction.start("DashboardPage.getPageTitle")) {
+            return driver.getTitle();
+        }
     }
 
     public String getCurrentUrl() {
-        return driver.getCurrentUrl();
+        try (PageAction action = PageAction.start("DashboardPage.getCurrentUrl")) {
+            return driver.getCurrentUrl();
+        }
+    }
+
+    // Reloads the page so rows created outside the UI show up in the table
+    public void reload() {
+        try (PageAction action = PageAction.start("DashboardPage.reload")) {
+            driver.navigate().refresh();
+            elements.invalidate();
+            loadSampled = false;
+            waitForTableToLoad();
+        }
     }
 
     // Employee table operations
+    public TableSnapshot getTableSnapshot() {
+        try (PageAction action = PageAction.start("DashboardPage.getTableSnapshot")) {
+            waitForTableToLoad();
+            return TableSnapshot.capture(driver, TABLE_SELECTOR);
+        }
+    }
+
     public int getEmployeeCount() {
-        waitForTableToLoad();
-        // Check if "No employees found" message is displayed
-        if (employeeRows.size() == 1) {
-            WebElement firstRow = employeeRows.get(0);
-            if (firstRow.getText().contains("No employees found")) {
-                return 0;
-            }
+        try (PageAction action = PageAction.start("DashboardPage.getEmployeeCount")) {
+            return getTableSnapshot().size();
+        }
+    }
+
+    // Rows the filter accepts, e.g. only the employees this worker created
+    public int getEmployeeCount(Predicate<TableSnapshot.Row> filter) {
+        try (PageAction action = PageAction.start("DashboardPage.getEmployeeCount")) {
+            return (int) getTableSnapshot().getRows().stream().filter(filter).count();
         }
-        return employeeRows.size();
     }
 
     public boolean isEmployeeInTable(String firstName, String lastName) {
-        waitForTableToLoad();
-        for (WebElement row : employeeRows) {
-            List<WebElement> cells = row.findElements(By.tagName("td"));
-            if (cells.size() >= 3) {
-                String tableFirstName = cells.get(1).getText();
-                String tableLastName = cells.get(2).getText();
-                if (firstName.equals(tableFirstName) && lastName.equals(tableLastName)) {
-                    return true;
-                }
-            }
+        try (PageAction action = PageAction.start("DashboardPage.isEmployeeInTable")) {
+            return getTableSnapshot().contains(firstName, lastName);
         }
-        return false;
     }
 
     // Add Employee functionality
     public void clickAddEmployee() {
-        wait.until(ExpectedConditions.elementToBeClickable(addEmployeeButton));
-        addEmployeeButton.click();
-        wait.until(ExpectedConditions.visibilityOf(employeeModal));
+        try (PageAction action = PageAction.start("DashboardPage.clickAddEmployee")) {
+            wait.until(ExpectedConditions.elementToBeClickable(addEmployeeButton));
+            modalCycle = telemetry.begin("DashboardPage.addCycle");
+            addEmployeeButton.click();
+            wait.until(ExpectedConditions.visibilityOf(employeeModal));
+        }
     }
 
     public void fillEmployeeForm(String firstName, String lastName, String dependants) {
-        wait.until(ExpectedConditions.visibilityOf(firstNameField));
+        try (PageAction action = PageAction.start("DashboardPage.fillEmployeeForm")) {
+            wait.until(ExpectedConditions.visibilityOf(firstNameField));
 
-        firstNameField.clear();
-        firstNameField.sendKeys(firstName);
+            firstNameField.clear();
+            firstNameField.sendKeys(firstName);
 
-        lastNameField.clear();
-        lastNameField.sendKeys(lastName);
+            lastNameField.clear();
+            lastNameField.sendKeys(lastName);
 
-        dependantsField.clear();
-        dependantsField.sendKeys(dependants);
+            dependantsField.clear();
+            dependantsField.sendKeys(dependants);
+        }
     }
 
     public void clickAddEmployeeInModal() {
-        wait.until(ExpectedConditions.elementToBeClickable(addEmployeeModalButton));
-        addEmployeeModalButton.click();
-        waitForModalToClose();
+        try (PageAction action = PageAction.start("DashboardPage.clickAddEmployeeInModal")) {
+            wait.until(ExpectedConditions.elementToBeClickable(addEmployeeModalButton));
+            Duration budget = ConsistencyBudgets.measured().get(ConsistencyBudgets.CREATE_LIST);
+            String firstName = budget.isZero() ? null : firstNameField.getAttribute("value");
+            String lastName = budget.isZero() ? null : lastNameField.getAttribute("value");
+            readiness.arm();
+            addEmployeeModalButton.click();
+            waitForModalToClose();
+            endModalCycle();
+            if (!budget.isZero()) {
+                awaitRow(firstName, lastName, true, budget);
+            }
+        }
     }
 
     public void addEmployee(String firstName, String lastName, String dependants) {
-        clickAddEmployee();
-        fillEmployeeForm(firstName, lastName, dependants);
-        clickAddEmployeeInModal();
+        try (PageAction action = PageAction.start("DashboardPage.addEmployee")) {
+            clickAddEmployee();
+            fillEmployeeForm(firstName, lastName, dependants);
+            clickAddEmployeeInModal();
+        }
+    }
+
+    public void clickCancelInModal() {
+        try (PageAction action = PageAction.start("DashboardPage.clickCancelInModal")) {
+            wait.until(ExpectedConditions.elementToBeClickable(cancelEmployeeButton));
+            cancelEmployeeButton.click();
+            wait.until(ExpectedConditions.invisibilityOf(employeeModal));
+            modalCycle = null;
+        }
     }
 
     // Edit Employee functionality
     public void clickEditEmployee(String firstName, String lastName) {
-        waitForTableToLoad();
-        for (WebElement row : employeeRows) {
-            List<WebElement> cells = row.findElements(By.tagName("td"));
-            if (cells.size() >= 3) {
-                String tableFirstName = cells.get(1).getText();
-                String tableLastName = cells.get(2).getText();
-                if (firstName.equals(tableFirstName) && lastName.equals(tableLastName)) {
-                    WebElement editIcon = cells.get(8).findElement(By.className("fa-edit"));
-                    wait.until(ExpectedConditions.elementToBeClickable(editIcon));
-                    editIcon.click();
-                    wait.until(ExpectedConditions.visibilityOf(employeeModal));
-                    return;
-                }
-            }
+        try (PageAction action = PageAction.start("DashboardPage.clickEditEmployee")) {
+            WebElement editIcon = findActionIcon(firstName, lastName, "fa-edit");
+            wait.until(ExpectedConditions.elementToBeClickable(editIcon));
+            modalCycle = telemetry.begin("DashboardPage.editCycle");
+            editIcon.click();
+            wait.until(ExpectedConditions.visibilityOf(employeeModal));
         }
-        throw new RuntimeException("Employee not found: " + firstName + " " + lastName);
     }
 
     public void clickUpdateEmployeeInModal() {
-        wait.until(ExpectedConditions.elementToBeClickable(updateEmployeeModalButton));
-        updateEmployeeModalButton.click();
-        waitForModalToClose();
+        try (PageAction action = PageAction.start("DashboardPage.clickUpdateEmployeeInModal")) {
+            wait.until(ExpectedConditions.elementToBeClickable(updateEmployeeModalButton));
+            readiness.arm();
+            updateEmployeeModalButton.click();
+            waitForModalToClose();
+            endModalCycle();
+        }
     }
 
     // Delete Employee functionality
     public void clickDeleteEmployee(String firstName, String lastName) {
-        waitForTableToLoad();
-        for (WebElement row : employeeRows) {
-            List<WebElement> cells = row.findElements(By.tagName("td"));
-            if (cells.size() >= 3) {
-                String tableFirstName = cells.get(1).getText();
-                String tableLastName = cells.get(2).getText();
-                if (firstName.equals(tableFirstName) && lastName.equals(tableLastName)) {
-                    WebElement deleteIcon = cells.get(8).findElement(By.className("fa-times"));
-                    wait.until(ExpectedConditions.elementToBeClickable(deleteIcon));
-                    deleteIcon.click();
-                    wait.until(ExpectedConditions.visibilityOf(deleteModal));
-                    return;
-                }
-            }
+        try (PageAction action = PageAction.start("DashboardPage.clickDeleteEmployee")) {
+            WebElement deleteIcon = findActionIcon(firstName, lastName, "fa-times");
+            wait.until(ExpectedConditions.elementToBeClickable(deleteIcon));
+            modalCycle = telemetry.begin("DashboardPage.deleteCycle");
+            deleteIcon.click();
+            wait.until(ExpectedConditions.visibilityOf(deleteModal));
         }
-        throw new RuntimeException("Employee not found: " + firstName + " " + lastName);
     }
 
     public void confirmDelete() {
-        wait.until(ExpectedConditions.elementToBeClickable(deleteEmployeeModalButton));
-        deleteEmployeeModalButton.click();
-        waitForModalToClose();
+        try (PageAction action = PageAction.start("DashboardPage.confirmDelete")) {
+            wait.until(ExpectedConditions.elementToBeClickable(deleteEmployeeModalButton));
+            Duration budget = ConsistencyBudgets.measured().get(ConsistencyBudgets.DELETE_LIST);
+            String firstName = budget.isZero() ? null : deleteFirstNameSpan.getText();
+            String lastName = budget.isZero() ? null : deleteLastNameSpan.getText();
+            readiness.arm();
+            deleteEmployeeModalButton.click();
+            waitForModalToClose();
+            endModalCycle();
+            if (!budget.isZero()) {
+                awaitRow(firstName, lastName, false, budget);
+            }
+        }
     }
 
     public void deleteEmployee(String firstName, String lastName) {
-        clickDeleteEmployee(firstName, lastName);
-        confirmDelete();
+        try (PageAction action = PageAction.start("DashboardPage.deleteEmployee")) {
+            clickDeleteEmployee(firstName, lastName);
+            confirmDelete();
+        }
+    }
+
+    // Bulk operations: one /Api/Employees request per employee, sent concurrently from the page with its own
+    // session and rate limited (api.bulk.concurrency, api.bulk.rate), then a single reload of the table
+    public BulkResult addEmployees(List<Employee> drafts) {
+        try (PageAction action = PageAction.start("DashboardPage.addEmployees")) {
+            List<Map<String, Object>> requests = new ArrayList<>(drafts.size());
+            for (Employee draft : drafts) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("firstName", draft.getFirstName());
+                json.put("lastName", draft.getLastName());
+                json.put("dependants", draft.getDependants());
+                requests.add(json);
+            }
+            BulkResult result = BulkResult.run(driver, apiPath, "POST", requests);
+            reload();
+            return result;
+        }
+    }
+
+    // Deletes every employee in the table the filter accepts
+    public BulkResult deleteEmployees(Predicate<TableSnapshot.Row> filter) {
+        try (PageAction action = PageAction.start("DashboardPage.deleteEmployees")) {
+            List<Map<String, Object>> requests = new ArrayList<>();
+            for (TableSnapshot.Row row : getTableSnapshot().getRows()) {
+                if (filter.test(row)) {
+                    requests.add(Map.of("id", row.getId()));
+                }
+            }
+            BulkResult result = BulkResult.run(driver, apiPath, "DELETE", requests);
+            if (!requests.isEmpty()) {
+                reload();
+            }
+            return result;
+        }
     }
 
     // Helper methods
+    private WebElement findActionIcon(String firstName, String lastName, String iconClass) {
+        TableSnapshot.Row row = getTableSnapshot().findByName(firstName, lastName)
+                .orElseThrow(() -> new RuntimeException("Employee not found: " + firstName + " " + lastName));
+        return driver.findElement(By.cssSelector(
+                TABLE_SELECTOR + " tbody tr:nth-child(" + (row.getIndex() + 1) + ") ." + iconClass));
+    }
+
     private void waitForTableToLoad() {
         wait.until(ExpectedConditions.visibilityOf(employeesTable));
-        // Wait a bit for JavaScript to populate the table
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        // Returns once requests are done and the table body stopped changing
+        readiness.waitForTable(TABLE_SELECTOR);
+        if (!loadSampled) {
+            loadSampled = true;
+            telemetry.navigation("DashboardPage.load", "employeesTable");
+        }
+    }
+
+    // The table re-renders from GET /Api/Employees after a save or delete, which may still show the old state;
+    // reloads until the row is (or is no longer) listed or the measured lag budget ran out
+    private void awaitRow(String firstName, String lastName, boolean present, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        while (TableSnapshot.capture(driver, TABLE_SELECTOR).contains(firstName, lastName) != present
+                && System.nanoTime() - deadline < 0) {
+            reload();
+        }
+    }
+
+    private void endModalCycle() {
+        if (modalCycle != null) {
+            modalCycle.end();
+            modalCycle = null;
         }
     }
 
     private void waitForModalToClose() {
+        // Returns once hidden.bs.modal fired, the save/delete request finished and the table re-rendered
+        readiness.waitForModalToClose(TABLE_SELECTOR);
         wait.until(ExpectedConditions.invisibilityOf(employeeModal));
         wait.until(ExpectedConditions.invisibilityOf(deleteModal));
-        // Wait for table to refresh
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    }
+
+    public List<PageReadiness.WaitTiming> getWaitTimings() {
+        return readiness.getTimings();
+    }
+
+    // Dashboard load (until the table had rows) and add/edit/delete modal cycles, see PageTelemetry
+    public List<PageTelemetry.Sample> getPerformanceSamples() {
+        return telemetry.getSamples();
     }
 
     // Modal state checks
     public boolean isEmployeeModalVisible() {
-        try {
+        try (PageAction action = PageAction.start("DashboardPage.isEmployeeModalVisible")) {
             return employeeModal.isDisplayed();
         } catch (Exception e) {
             return false;
@@ -246,7 +371,7 @@ public class DashboardPage {
     }
 
     public boolean isDeleteModalVisible() {
-        try {
+        try (PageAction action = PageAction.start("DashboardPage.isDeleteModalVisible")) {
             return deleteModal.isDisplayed();
         } catch (Exception e) {
             return false;
@@ -3,17 +3,24 @@ package pages;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import utils.PageAction;
+import utils.PageElements;
+import utils.PageTelemetry;
+import utils.TimedWait;
 import java.time.Duration;
+import java.util.List;
 
 public class LoginPage {
     private WebDriver driver;
     private WebDriverWait wait;
+    private PageElements elements;
+    private PageTelemetry telemetry;
 
-    // Page URL
-    private static final String LOGIN_URL = "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod/Account/Login";
+    // Page URL - login.url points the page at another deployment or the local stub server. Read per page
+    // rather than once, since the stub server sets it when the launcher session opens.
+    private final String loginUrl;
 
     // Web Elements
     @FindBy(id = "Username")
@@ -34,54 +41,67 @@ public class LoginPage {
     // Constructor
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.wait = new TimedWait(driver, Duration.ofSeconds(10));
+        this.elements = PageElements.init(driver, this);
+        this.telemetry = new PageTelemetry(driver);
+        this.loginUrl = System.getProperty("login.url",
+                "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod/Account/Login");
     }
 
     // Actions
     public void navigateToLogin() {
-        driver.get(LOGIN_URL);
-        wait.until(ExpectedConditions.visibilityOf(usernameField));
+        try (PageAction action = PageAction.start("LoginPage.navigateToLogin")) {
+            driver.get(loginUrl);
+            elements.invalidate();
+            wait.until(ExpectedConditions.visibilityOf(usernameField));
+            telemetry.navigation("LoginPage.load", null);
+        }
     }
 
     public void enterUsername(String username) {
-        wait.until(ExpectedConditions.elementToBeClickable(usernameField));
-        usernameField.clear();
-        usernameField.sendKeys(username);
+        try (PageAction action = PageAction.start("LoginPage.enterUsername")) {
+            wait.until(ExpectedConditions.elementToBeClickable(usernameField));
+            usernameField.clear();
+            usernameField.sendKeys(username);
+        }
     }
 
     public void enterPassword(String password) {
-        wait.until(ExpectedConditions.elementToBeClickable(passwordField));
-        passwordField.clear();
-        passwordField.sendKeys(password);
+        try (PageAction action = PageAction.start("LoginPage.enterPassword")) {
+            wait.until(ExpectedConditions.elementToBeClickable(passwordField));
+            passwordField.clear();
+            passwordField.sendKeys(password);
+        }
     }
 
     public void clickLoginButton() {
-        wait.until(ExpectedConditions.elementToBeClickable(loginButton));
-        loginButton.click();
+        try (PageAction action = PageAction.start("LoginPage.clickLoginButton")) {
+            wait.until(ExpectedConditions.elementToBeClickable(loginButton));
+            loginButton.click();
+        }
     }
 
     public DashboardPage login(String username, String password) {
-        navigateToLogin();
-        enterUsername(username);
-        enterPassword(password);
-        clickLoginButton();
-        return new DashboardPage(driver);
+        try (PageAction action = PageAction.start("LoginPage.login")) {
+            navigateToLogin();
+            enterUsername(username);
+            enterPassword(password);
+            clickLoginButton();
+            return new DashboardPage(driver);
+        }
     }
 
     // Validations
     public boolean isLoginPageDisplayed() {
-        try {
-            return usernameField.isDisplayed() &&
-                    passwordField.isDisplayed() &&
-                    loginButton.isDisplayed();
+        try (PageAction action = PageAction.start("LoginPage.isLoginPageDisplayed")) {
+            return elements.allDisplayed(usernameField, passwordField, loginButton);
         } catch (Exception e) {
             return false;
         }
     }
 
     public boolean isErrorDisplayed() {
-        try {
+        try (PageAction action = PageAction.start("LoginPage.isErrorDisplayed")) {
             return errorContainer.isDisplayed() &&
                     !errorContainer.getAttribute("class").contains("validation-summary-valid");
         } catch (Exception e) {
@@ -90,10 +110,19 @@ public class LoginPage {
     }
 
     public String getPageTitle() {
-        return driver.getTitle();
+        try (PageAction action = PageAction.start("LoginPage.getPageTitle")) {
+            return driver.getTitle();
+        }
     }
 
     public String getCurrentUrl() {
-        return driver.getCurrentUrl();
+        try (PageAction action = PageAction.start("LoginPage.getCurrentUrl")) {
+            return driver.getCurrentUrl();
+        }
+    }
+
+    // Navigation Timing, resources, long tasks and CDP metrics of each login page load
+    public List<PageTelemetry.Sample> getPerformanceSamples() {
+        return telemetry.getSamples();
     }
 }
\ No newline at end of file
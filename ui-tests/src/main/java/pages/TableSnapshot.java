@@ -0,0 +1,197 @@
+package pages;
+
+import benefits.PayrollBatch;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Immutable copy of the employees table read with a single script call,
+// indexed by id and by (firstName, lastName) so lookups do not go back to the browser.
+public final class TableSnapshot {
+    // Id, First Name, Last Name, Dependants, Salary, Gross Pay, Benefits Cost, Net Pay, Actions
+    private static final int DATA_COLUMNS = 8;
+
+    private static final String READ_TABLE_SCRIPT =
+            "var rows = document.querySelectorAll(arguments[0] + ' tbody tr');" +
+            "return Array.prototype.map.call(rows, function(tr) {" +
+            "  return Array.prototype.map.call(tr.cells, function(td) { return td.textContent.trim(); });" +
+            "});";
+
+    private final List<Row> rows;
+    private final Map<String, Row> byId;
+    private final Map<String, List<Row>> byName;
+
+    private TableSnapshot(List<Row> rows) {
+        this.rows = Collections.unmodifiableList(rows);
+        Map<String, Row> ids = new HashMap<>();
+        Map<String, List<Row>> names = new HashMap<>();
+        for (Row row : rows) {
+            ids.putIfAbsent(row.getId(), row);
+            names.computeIfAbsent(nameKey(row.getFirstName(), row.getLastName()), key -> new ArrayList<>()).add(row);
+        }
+        this.byId = ids;
+        this.byName = names;
+    }
+
+    public static TableSnapshot capture(WebDriver driver, String tableSelector) {
+        Object cells = ((JavascriptExecutor) driver).executeScript(READ_TABLE_SCRIPT, tableSelector);
+        return of(cells instanceof List ? (List<?>) cells : Collections.emptyList());
+    }
+
+    // Builds a snapshot from raw cell texts, one list per <tr>; placeholder rows such as "No employees found" are skipped
+    public static TableSnapshot of(List<?> cells) {
+        List<Row> rows = new ArrayList<>(cells.size());
+        for (int index = 0; index < cells.size(); index++) {
+            Object tr = cells.get(index);
+            if (!(tr instanceof List) || ((List<?>) tr).size() < DATA_COLUMNS) {
+                continue;
+            }
+            List<?> td = (List<?>) tr;
+            rows.add(new Row(index,
+                    text(td.get(0)),
+                    text(td.get(1)),
+                    text(td.get(2)),
+                    integer(td.get(3)),
+                    money(td.get(4)),
+                    money(td.get(5)),
+                    money(td.get(6)),
+                    money(td.get(7))));
+        }
+        return new TableSnapshot(rows);
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public Optional<Row> findById(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<Row> findByName(String firstName, String lastName) {
+        List<Row> matches = byName.get(nameKey(firstName, lastName));
+        return matches == null ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    public List<Row> findAllByName(String firstName, String lastName) {
+        return Collections.unmodifiableList(byName.getOrDefault(nameKey(firstName, lastName), Collections.emptyList()));
+    }
+
+    // Rows in the form BenefitsEngine verifies; amounts are compared as displayed (to the cent)
+    public PayrollBatch toPayrollBatch() {
+        PayrollBatch batch = new PayrollBatch(rows.size());
+        for (Row row : rows) {
+            batch.add(row.getId(), row.getDependants(), PayrollBatch.cents(row.getSalary()), PayrollBatch.cents(row.getGrossPay()),
+                    PayrollBatch.cents(row.getBenefitsCost()), PayrollBatch.cents(row.getNetPay()));
+        }
+        return batch;
+    }
+
+    public boolean contains(String firstName, String lastName) {
+        return byName.containsKey(nameKey(firstName, lastName));
+    }
+
+    private static String nameKey(String firstName, String lastName) {
+        return firstName + '\u0000' + lastName;
+    }
+
+    private static String text(Object cell) {
+        return cell == null ? "" : cell.toString();
+    }
+
+    private static int integer(Object cell) {
+        try {
+            return Integer.parseInt(text(cell).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Accepts "1961.54", "$1,961.54" and similar; null when the cell is not a number
+    private static BigDecimal money(Object cell) {
+        String value = text(cell).replace("$", "").replace(",", "").trim();
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static final class Row {
+        private final int index;
+        private final String id;
+        private final String firstName;
+        private final String lastName;
+        private final int dependants;
+        private final BigDecimal salary;
+        private final BigDecimal grossPay;
+        private final BigDecimal benefitsCost;
+        private final BigDecimal netPay;
+
+        Row(int index, String id, String firstName, String lastName, int dependants,
+            BigDecimal salary, BigDecimal grossPay, BigDecimal benefitsCost, BigDecimal netPay) {
+            this.index = index;
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.dependants = dependants;
+            this.salary = salary;
+            this.grossPay = grossPay;
+            this.benefitsCost = benefitsCost;
+            this.netPay = netPay;
+        }
+
+        // Zero-based position of the <tr> in the table body
+        public int getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public int getDependants() {
+            return dependants;
+        }
+
+        public BigDecimal getSalary() {
+            return salary;
+        }
+
+        public BigDecimal getGrossPay() {
+            return grossPay;
+        }
+
+        public BigDecimal getBenefitsCost() {
+            return benefitsCost;
+        }
+
+        public BigDecimal getNetPay() {
+            return netPay;
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + firstName + " " + lastName + " (" + dependants + " dependants, net " + netPay + ")";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Logs in once per worker thread over HTTP and injects the resulting cookies into the browser,
+// so tests that are not about the login form can open the dashboard directly.
+public class AuthSession {
+    private static final String DEFAULT_BASE_URL = "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod";
+    private static final String USERNAME = System.getProperty("test.username", "TestUser773");
+    private static final String PASSWORD = System.getProperty("test.password", "6q0]l$BKOUb!");
+
+    // Used when the server issues session cookies without Expires/Max-Age
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(Long.getLong("auth.ttl", 1200));
+    // Refresh a bit early so a cookie never expires halfway through a test
+    private static final Duration REFRESH_MARGIN = Duration.ofSeconds(30);
+
+    private static final Pattern VERIFICATION_TOKEN =
+            Pattern.compile("name=\"__RequestVerificationToken\"[^>]*value=\"([^\"]+)\"");
+
+    private static final ThreadLocal<Credential> CREDENTIAL = new ThreadLocal<>();
+
+    // Opens the dashboard in the given browser as the configured test user
+    public static void openDashboard(WebDriver driver) {
+        // Defaults to wherever the login response redirects to
+        String dashboardUrl = System.getProperty("dashboard.url");
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Credential credential = currentCredential();
+            URI dashboard = URI.create(dashboardUrl != null ? dashboardUrl : credential.landingUrl);
+            if (!isOnHost(driver, dashboard)) {
+                // Cookies can only be added for the document's own origin
+                driver.get(dashboard.resolve("/favicon.ico").toString());
+            }
+            driver.manage().deleteAllCookies();
+            for (HttpCookie cookie : credential.cookies) {
+                driver.manage().addCookie(toSeleniumCookie(cookie, credential.expiresAt));
+            }
+            driver.get(dashboard.toString());
+            if (!driver.getCurrentUrl().contains("/Account/Login")) {
+                return;
+            }
+            // Server rejected the cookie before its advertised expiry, log in again
+            CREDENTIAL.remove();
+        }
+        throw new IllegalStateException("Dashboard redirected to login even after a fresh HTTP login");
+    }
+
+    public static void invalidate() {
+        CREDENTIAL.remove();
+    }
+
+    // base.url and login.url are read per login rather than once, since the stub server sets them when the
+    // launcher session opens; a credential issued by another login URL is not reused
+    private static Credential currentCredential() {
+        String loginUrl = System.getProperty("login.url",
+                System.getProperty("base.url", DEFAULT_BASE_URL) + "/Account/Login");
+        Credential credential = CREDENTIAL.get();
+        if (credential == null || credential.isExpiring() || !credential.loginUrl.equals(loginUrl)) {
+            credential = login(loginUrl);
+            CREDENTIAL.set(credential);
+        }
+        return credential;
+    }
+
+    private static Credential login(String loginUrl) {
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        try {
+            HttpResponse<String> form = client.send(HttpRequest.newBuilder(URI.create(loginUrl)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            StringBuilder body = new StringBuilder()
+                    .append("Username=").append(encode(USERNAME))
+                    .append("&Password=").append(encode(PASSWORD));
+            Matcher token = VERIFICATION_TOKEN.matcher(form.body());
+            if (token.find()) {
+                body.append("&__RequestVerificationToken=").append(encode(token.group(1)));
+            }
+
+            Instant issuedAt = Instant.now();
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(loginUrl))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            if (response.statusCode() / 100 != 3) {
+                throw new IllegalStateException("HTTP login for " + USERNAME + " failed with status " + response.statusCode());
+            }
+            List<HttpCookie> issued = cookies.getCookieStore().getCookies();
+            if (issued.isEmpty()) {
+                throw new IllegalStateException("HTTP login for " + USERNAME + " did not set any cookie");
+            }
+            String landingUrl = response.headers().firstValue("Location")
+                    .map(location -> URI.create(loginUrl).resolve(location).toString())
+                    .orElse(System.getProperty("base.url", DEFAULT_BASE_URL));
+            return new Credential(loginUrl, issued, expiry(issued, issuedAt), landingUrl);
+        } catch (IOException e) {
+            throw new IllegalStateException("HTTP login request to " + loginUrl + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during HTTP login", e);
+        }
+    }
+
+    private static Instant expiry(List<HttpCookie> cookies, Instant issuedAt) {
+        Instant expiry = issuedAt.plus(DEFAULT_TTL);
+        for (HttpCookie cookie : cookies) {
+            if (cookie.getMaxAge() > 0) {
+                Instant cookieExpiry = issuedAt.plusSeconds(cookie.getMaxAge());
+                if (cookieExpiry.isBefore(expiry)) {
+                    expiry = cookieExpiry;
+                }
+            }
+        }
+        return expiry;
+    }
+
+    private static Cookie toSeleniumCookie(HttpCookie cookie, Instant expiresAt) {
+        return new Cookie.Builder(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                .isSecure(cookie.getSecure())
+                .isHttpOnly(cookie.isHttpOnly())
+                .expiresOn(cookie.getMaxAge() > 0 ? Date.from(expiresAt) : null)
+                .build();
+    }
+
+    private static boolean isOnHost(WebDriver driver, URI target) {
+        try {
+            URI current = URI.create(driver.getCurrentUrl());
+            return target.getHost().equalsIgnoreCase(current.getHost());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class Credential {
+        private final String loginUrl;
+        private final List<HttpCookie> cookies;
+        private final Instant expiresAt;
+        private final String landingUrl;
+
+        Credential(String loginUrl, List<HttpCookie> cookies, Instant expiresAt, String landingUrl) {
+            this.loginUrl = loginUrl;
+            this.cookies = List.copyOf(cookies);
+            this.expiresAt = expiresAt;
+            this.landingUrl = landingUrl;
+        }
+
+        boolean isExpiring() {
+            return Instant.now().plus(REFRESH_MARGIN).isAfter(expiresAt);
+        }
+    }
+}
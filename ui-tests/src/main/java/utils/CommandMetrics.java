@@ -0,0 +1,198 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records latency and count of every WebDriver command, per test, per page-object action
+// (see PageAction) and per locator. DriverManager decorates its drivers with this listener.
+// Per-test reports also list the page-object fields used, which drives change-impact test selection.
+public class CommandMetrics implements WebDriverListener {
+    static final Set<String> LOCAL_CALLS = Set.of(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    private static final CommandMetrics INSTANCE = new CommandMetrics();
+    private static final Path REPORT_DIR = Paths.get(System.getProperty("webdriver.metrics.dir", "build/reports/webdriver-commands"));
+    private static final Json JSON = new Json();
+
+    private static final Report SUITE = new Report("suite");
+    private static final ThreadLocal<Report> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Long>> STARTED = ThreadLocal.withInitial(ArrayDeque::new);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> write(SUITE), "webdriver-metrics-report"));
+    }
+
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    static boolean isRoundTrip(Method method) {
+        return !LOCAL_CALLS.contains(method.getName());
+    }
+
+    // Starts collecting a per-test report on the calling thread
+    public static void startTest(String testName) {
+        CURRENT_TEST.set(new Report(testName));
+    }
+
+    // Ends the current test, writes its report and returns it for budget checks
+    public static Report finishTest() {
+        Report report = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        if (report != null) {
+            write(report);
+        }
+        return report;
+    }
+
+    public static Report suite() {
+        return SUITE;
+    }
+
+    static void recordAction(String name, long nanos, long commands) {
+        SUITE.stats("actions", name).record(nanos, commands);
+        Report test = CURRENT_TEST.get();
+        if (test != null) {
+            test.stats("actions", name).record(nanos, commands);
+        }
+    }
+
+    // An explicit wait on the page (see PageReadiness), e.g. "readiness.table"; timed-out waits are listed apart
+    static void recordWait(String signal, long nanos, boolean satisfied) {
+        String key = satisfied ? signal : signal + " (timed out)";
+        SUITE.stats("waits", key).record(nanos, 0);
+        Report test = CURRENT_TEST.get();
+        if (test != null) {
+            test.stats("waits", key).record(nanos, 0);
+        }
+    }
+
+    // Use of a page-object field (see PageElements), e.g. "DashboardPage.employeesTable"
+    static void recordField(String name) {
+        SUITE.stats("fields", name).record(0);
+        Report test = CURRENT_TEST.get();
+        if (test != null) {
+            test.stats("fields", name).record(0);
+        }
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isRoundTrip(method)) {
+            STARTED.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method, args);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method, args);
+    }
+
+    private void finish(Object target, Method method, Object[] args) {
+        if (!isRoundTrip(method) || STARTED.get().isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - STARTED.get().pop();
+        PageAction.chargeCommand();
+
+        String command = method.getName();
+        String action = PageAction.outermost();
+        String locator = locator(target, args);
+
+        Report test = CURRENT_TEST.get();
+        for (Report report : test == null ? new Report[]{SUITE} : new Report[]{SUITE, test}) {
+            report.stats("commands", command).record(nanos);
+            report.stats("commandsByAction", action == null ? "(test code)" : action).record(nanos);
+            if (locator != null) {
+                report.stats("locators", locator).record(nanos);
+            }
+        }
+    }
+
+    // By passed to findElement(s), or the locator a found element was resolved with
+    private static String locator(Object target, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            return args[0].toString();
+        }
+        if (target instanceof WebDriver) {
+            return null;
+        }
+        String description = String.valueOf(target);
+        int arrow = description.lastIndexOf(" -> ");
+        return arrow < 0 ? null : description.substring(arrow + 4, description.length() - 1);
+    }
+
+    private static void write(Report report) {
+        try {
+            Files.createDirectories(REPORT_DIR);
+            String fileName = report.name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+            Files.write(REPORT_DIR.resolve(fileName), JSON.toJson(report.toJson()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write WebDriver command report for " + report.name, e);
+        }
+    }
+
+    public static final class Report {
+        private final String name;
+        private final Map<String, Map<String, CommandStats>> sections = new ConcurrentHashMap<>();
+
+        Report(String name) {
+            this.name = name;
+        }
+
+        CommandStats stats(String section, String key) {
+            return sections.computeIfAbsent(section, s -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key, k -> new CommandStats());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Stats of one page-object action, e.g. "DashboardPage.isEmployeeInTable"; null if it never ran
+        public CommandStats action(String name) {
+            return sections.getOrDefault("actions", Map.of()).get(name);
+        }
+
+        public long totalCommands() {
+            return sections.getOrDefault("commands", Map.of()).values().stream().mapToLong(CommandStats::getCount).sum();
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", name);
+            json.put("totalCommands", totalCommands());
+            for (Map.Entry<String, Map<String, CommandStats>> section : new TreeMap<>(sections).entrySet()) {
+                Map<String, Object> entries = new TreeMap<>();
+                section.getValue().forEach((key, stats) -> entries.put(key, stats.toJson()));
+                json.put(section.getKey(), entries);
+            }
+            return json;
+        }
+    }
+}
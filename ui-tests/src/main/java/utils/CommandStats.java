@@ -0,0 +1,77 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Count, total/max latency and a power-of-two latency histogram (bucket i holds values < 2^i microseconds)
+public class CommandStats {
+    private static final int BUCKETS = 32;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong maxCommands = new AtomicLong();
+    private final LongAdder commands = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    // For page actions: one invocation that sent `commandCount` WebDriver commands
+    void record(long nanos, long commandCount) {
+        count.increment();
+        totalNanos.add(nanos);
+        commands.add(commandCount);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        maxCommands.accumulateAndGet(commandCount, Math::max);
+        long micros = Math.max(1, nanos / 1000);
+        histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    public long getMaxCommands() {
+        return maxCommands.get();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", getCount());
+        json.put("commands", getCommands());
+        json.put("maxCommands", getMaxCommands());
+        json.put("totalMs", round(getTotalMillis()));
+        json.put("meanMs", getCount() == 0 ? 0 : round(getTotalMillis() / getCount()));
+        json.put("maxMs", round(getMaxMillis()));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = histogram.get(i);
+            if (value > 0) {
+                buckets.put("<" + (1L << i) + "us", value);
+            }
+        }
+        json.put("histogram", buckets);
+        return json;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,119 @@
+package utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+// Locates chromedriver/geckodriver without asking the network on every run. The first WebDriverManager
+// resolution is remembered in driver.cache; later runs use that binary until driver.cache.ttlHours passes.
+// With driver.offline=true the network is never used: the cached binary (or an explicit
+// webdriver.chrome.driver / webdriver.gecko.driver) must already be there.
+final class DriverBinaries {
+    static final String PRESET = "preset";
+    static final String CACHE = "cache";
+    static final String NETWORK = "network";
+
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("driver.cache",
+            Paths.get(System.getProperty("user.home"), ".cache", "paylocity-ui-tests", "drivers.properties").toString()));
+    private static final Duration TTL = Duration.ofHours(Long.getLong("driver.cache.ttlHours", 24));
+    private static final boolean OFFLINE = Boolean.getBoolean("driver.offline");
+
+    private DriverBinaries() {
+    }
+
+    // Sets the driver system property for the browser and returns where the binary came from
+    static synchronized String resolve(String browser) {
+        String property = property(browser);
+        String preset = System.getProperty(property);
+        if (preset != null && Files.isExecutable(Paths.get(preset))) {
+            return PRESET;
+        }
+
+        Properties cache = load();
+        String path = cache.getProperty(browser + ".path");
+        String resolvedAt = cache.getProperty(browser + ".resolvedAt");
+        if (path != null && Files.isExecutable(Paths.get(path))
+                && (OFFLINE || isFresh(resolvedAt))) {
+            System.setProperty(property, path);
+            return CACHE;
+        }
+        if (OFFLINE) {
+            throw new IllegalStateException("driver.offline=true but there is no cached " + browser + " driver in "
+                    + CACHE_FILE + "; run once online or set " + property);
+        }
+
+        WebDriverManager manager = "firefox".equals(browser) ? WebDriverManager.firefoxdriver() : WebDriverManager.chromedriver();
+        manager.setup();
+        cache.setProperty(browser + ".path", manager.getDownloadedDriverPath());
+        cache.setProperty(browser + ".version", String.valueOf(manager.getDownloadedDriverVersion()));
+        cache.setProperty(browser + ".resolvedAt", Instant.now().toString());
+        store(cache);
+        return NETWORK;
+    }
+
+    // System property the browser's driver binary is read from
+    static String property(String browser) {
+        return "firefox".equals(browser) ? "webdriver.gecko.driver" : "webdriver.chrome.driver";
+    }
+
+    // Forgets the cached binary when it is the one a session failed to start with, e.g. a chromedriver the
+    // browser outgrew after an update, so the next resolve() asks WebDriverManager again. Returns false when
+    // the failed binary was not the cached one (preset, or already replaced by another session).
+    static synchronized boolean invalidate(String browser, String failedPath) {
+        Properties cache = load();
+        if (failedPath == null || !failedPath.equals(cache.getProperty(browser + ".path"))) {
+            return false;
+        }
+        cache.remove(browser + ".path");
+        cache.remove(browser + ".version");
+        cache.remove(browser + ".resolvedAt");
+        store(cache);
+        if (failedPath.equals(System.getProperty(property(browser)))) {
+            System.clearProperty(property(browser));
+        }
+        return true;
+    }
+
+    private static boolean isFresh(String resolvedAt) {
+        try {
+            return resolvedAt != null && Instant.parse(resolvedAt).plus(TTL).isAfter(Instant.now());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static Properties load() {
+        Properties cache = new Properties();
+        if (Files.exists(CACHE_FILE)) {
+            try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+                cache.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                // Unreadable cache, resolve again
+            }
+        }
+        return cache;
+    }
+
+    private static void store(Properties cache) {
+        try {
+            Files.createDirectories(CACHE_FILE.getParent());
+            Path temp = Files.createTempFile(CACHE_FILE.getParent(), "drivers", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                cache.store(out, "Driver binaries resolved by WebDriverManager");
+            }
+            Files.move(temp, CACHE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not cache driver binary locations in " + CACHE_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,30 +1,138 @@
 package utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 public class DriverManager {
-    private static WebDriver driver;
+    // "browser" accepts a comma separated list (e.g. chrome,firefox) assigned round-robin to worker threads
     private static final String BROWSER = System.getProperty("browser", "chrome");
+    private static final List<String> BROWSERS = parseBrowsers(BROWSER);
     private static final boolean HEADLESS = Boolean.parseBoolean(System.getProperty("headless", "false"));
+    // One session per core locally; on a Selenium Grid (driver.remote) one per slot of the configured browsers
+    private static final int POOL_SIZE = Integer.getInteger("driver.pool.size", defaultPoolSize());
+    private static final Duration LEASE_TIMEOUT = Duration.ofSeconds(Long.getLong("driver.pool.leaseTimeout", 120));
+    private static final boolean METRICS = Boolean.parseBoolean(System.getProperty("webdriver.metrics", "true"));
+    // Sessions launched in the background by prewarm(), before the first test asks for one
+    private static final int PREWARM = Integer.getInteger("driver.prewarm", 1);
+    // How long a worker keeps its session: "test" hands it back to the pool after every test, "class" after
+    // the test class and "worker" keeps it for every class the thread runs. Between tests it is reset, not relaunched.
+    private static final String SESSION_SCOPE = parseScope(System.getProperty("driver.session", "class"));
+    // A session is relaunched after this many tests, and always after a failed one
+    private static final int MAX_USES = Integer.getInteger("driver.session.maxUses", 50);
 
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+    private static final Set<String> RESOLVED_BINARIES = ConcurrentHashMap.newKeySet();
+    private static final Map<WebDriver, Integer> USES = new ConcurrentHashMap<>();
+    // Starts the replacement of a recycled session while the next test is being set up
+    private static final ExecutorService RELAUNCHER = Executors.newCachedThreadPool(DriverManager::launcherThread);
+
+    private static final DriverPool POOL = new DriverPool(POOL_SIZE, LEASE_TIMEOUT, browser -> setupDriver(browser, false));
+    private static final ThreadLocal<WebDriver> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> WORKER_BROWSER =
+            ThreadLocal.withInitial(() -> BROWSERS.get(Math.floorMod(WORKERS.getAndIncrement(), BROWSERS.size())));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::shutdown, "driver-pool-shutdown"));
+    }
+
+    // Each thread leases its own session from the pool and keeps it for the driver.session scope
     public static WebDriver getDriver() {
+        WebDriver driver = CURRENT.get();
         if (driver == null) {
-            setupDriver();
+            long started = System.nanoTime();
+            driver = POOL.lease(WORKER_BROWSER.get());
+            StartupMetrics.recordLease(System.nanoTime() - started);
+            CURRENT.set(driver);
         }
         return driver;
     }
 
-    private static void setupDriver() {
-        switch (BROWSER.toLowerCase()) {
+    // The session the calling thread holds, without leasing one (e.g. for failure diagnostics)
+    public static Optional<WebDriver> getCurrentDriver() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    // Launches driver.prewarm sessions (spread over the configured browsers) on background threads,
+    // so browser start-up overlaps with test discovery. Called when the test engine starts.
+    public static void prewarm() {
+        int sessions = Math.min(PREWARM, POOL_SIZE);
+        if (sessions <= 0) {
+            return;
+        }
+        ExecutorService launcher = Executors.newFixedThreadPool(sessions, DriverManager::launcherThread);
+        for (int i = 0; i < sessions; i++) {
+            String browser = BROWSERS.get(i % BROWSERS.size());
+            POOL.prewarm(browser, 1, () -> setupDriver(browser, true), launcher);
+        }
+        launcher.shutdown();
+    }
+
+    public static String getBrowser() {
+        return WORKER_BROWSER.get();
+    }
+
+    public static int getPoolSize() {
+        return POOL.capacity();
+    }
+
+    private static Thread launcherThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "driver-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static int defaultPoolSize() {
+        if (!SeleniumGrid.isEnabled()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int slots = SeleniumGrid.totalSlots(BROWSERS);
+        StartupMetrics.recordGridSlots(slots);
+        return Math.max(1, slots);
+    }
+
+    private static String parseScope(String value) {
+        String scope = value.trim().toLowerCase();
+        if (!List.of("test", "class", "worker").contains(scope)) {
+            throw new IllegalArgumentException("driver.session must be test, class or worker: " + value);
+        }
+        return scope;
+    }
+
+    private static List<String> parseBrowsers(String value) {
+        List<String> browsers = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(String::toLowerCase)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+        return browsers.isEmpty() ? List.of("chrome") : browsers;
+    }
+
+    private static WebDriver setupDriver(String browser, boolean prewarmed) {
+        boolean remote = SeleniumGrid.isEnabled();
+        MutableCapabilities options;
+        switch (browser) {
             case "chrome":
-                WebDriverManager.chromedriver().setup();
                 ChromeOptions chromeOptions = new ChromeOptions();
                 if (HEADLESS) {
                     chromeOptions.addArguments("--headless");
@@ -32,37 +140,174 @@ public class DriverManager {
                 chromeOptions.addArguments("--no-sandbox");
                 chromeOptions.addArguments("--disable-dev-shm-usage");
                 chromeOptions.addArguments("--window-size=1920,1080");
-                driver = new ChromeDriver(chromeOptions);
+                chromeOptions.setPageLoadStrategy(NetworkShaping.pageLoadStrategy());
+                if (FailureDiagnostics.isEnabled()) {
+                    // Chrome only keeps the console for driver.manage().logs() when asked to (goog:loggingPrefs)
+                    LoggingPreferences logging = new LoggingPreferences();
+                    logging.enable(LogType.BROWSER, Level.ALL);
+                    chromeOptions.setCapability(ChromeOptions.LOGGING_PREFS, logging);
+                }
+                options = chromeOptions;
                 break;
 
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
                 if (HEADLESS) {
                     firefoxOptions.addArguments("--headless");
                 }
-                driver = new FirefoxDriver(firefoxOptions);
+                firefoxOptions.setPageLoadStrategy(NetworkShaping.pageLoadStrategy());
+                options = firefoxOptions;
                 break;
 
             default:
-                throw new IllegalArgumentException("Browser not supported: " + BROWSER);
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+
+        // Grid nodes bring their own driver binaries
+        if (!remote) {
+            resolveDriverBinary(browser);
+        }
+        long spawnStarted = System.nanoTime();
+        WebDriver driver;
+        if (remote) {
+            driver = SeleniumGrid.newSession(browser, options);
+        } else {
+            String binary = System.getProperty(DriverBinaries.property(browser));
+            try {
+                driver = localDriver(browser, options);
+            } catch (SessionNotCreatedException e) {
+                if (!refreshDriverBinary(browser, binary)) {
+                    throw e;
+                }
+                driver = localDriver(browser, options);
+            }
+        }
+        if ("chrome".equals(browser)) {
+            // Blocks, stubs and caches requests when network.shaping=true
+            NetworkShaping.install(driver);
+            // Performance collector on every new document, before the page's own scripts
+            PageTelemetry.install(driver);
         }
 
         driver.manage().window().maximize();
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        StartupMetrics.Session session = StartupMetrics.recordSpawn(browser, prewarmed, System.nanoTime() - spawnStarted);
+        driver = new EventFiringDecorator<>(session).decorate(driver);
+        // Every command the tests send is timed and attributed by CommandMetrics
+        return METRICS ? CommandMetrics.decorate(driver) : driver;
+    }
+
+    private static WebDriver localDriver(String browser, MutableCapabilities options) {
+        return "chrome".equals(browser) ? new ChromeDriver((ChromeOptions) options) : new FirefoxDriver((FirefoxOptions) options);
+    }
+
+    // A session that could not start with a cached binary (typically a driver/browser version mismatch after
+    // the browser updated) gets one more try with a freshly resolved binary. True when a retry may help:
+    // the cached binary was dropped and resolved again, or another session already replaced it.
+    private static synchronized boolean refreshDriverBinary(String browser, String failedPath) {
+        if (failedPath == null) {
+            return false;
+        }
+        if (!failedPath.equals(System.getProperty(DriverBinaries.property(browser)))) {
+            return true;
+        }
+        if (!DriverBinaries.invalidate(browser, failedPath)) {
+            return false;
+        }
+        RESOLVED_BINARIES.remove(browser);
+        resolveDriverBinary(browser);
+        return true;
+    }
+
+    // Resolve each binary once per JVM; DriverBinaries keeps the result on disk for the next run
+    private static synchronized void resolveDriverBinary(String browser) {
+        if (!RESOLVED_BINARIES.add(browser)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            String source = DriverBinaries.resolve(browser);
+            StartupMetrics.recordResolution(browser, source, System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            RESOLVED_BINARIES.remove(browser);
+            throw e;
+        }
+    }
+
+    // Called after every test (tests.BrowserSessionExtension): a failed test, or one that used the session
+    // for the driver.session.maxUses-th time, gets its browser relaunched; otherwise the session is reset
+    // and kept for the next test, or handed back to the pool with driver.session=test. Tests of a class
+    // whose methods run concurrently always hand it back, since the class is spread over several workers.
+    public static void finishTest(boolean failed, boolean concurrent) {
+        WebDriver driver = CURRENT.get();
+        if (driver == null) {
+            return;
+        }
+        int uses = USES.merge(driver, 1, Integer::sum);
+        if (failed || uses >= MAX_USES) {
+            recycle(driver, failed ? "failure" : "maxUses");
+        } else if (!reset(driver)) {
+            recycle(driver, "reset");
+        } else if (concurrent || "test".equals(SESSION_SCOPE)) {
+            CURRENT.remove();
+            POOL.release(WORKER_BROWSER.get(), driver);
+        }
+    }
+
+    // Called after every test class; with driver.session=class the (already reset) session goes back to the pool
+    public static void finishClass() {
+        WebDriver driver = CURRENT.get();
+        if (driver != null && "class".equals(SESSION_SCOPE)) {
+            CURRENT.remove();
+            POOL.release(WORKER_BROWSER.get(), driver);
+        }
+    }
+
+    // Hands the session back to the pool right away so the next test on any worker can reuse the warm browser
+    public static void releaseDriver() {
+        WebDriver driver = CURRENT.get();
+        if (driver == null) {
+            return;
+        }
+        if (!reset(driver)) {
+            recycle(driver, "reset");
+            return;
+        }
+        CURRENT.remove();
+        POOL.release(WORKER_BROWSER.get(), driver);
+    }
+
+    private static boolean reset(WebDriver driver) {
+        long started = System.nanoTime();
+        boolean clean = SessionReset.reset(driver);
+        StartupMetrics.recordReset(System.nanoTime() - started);
+        return clean;
+    }
+
+    private static void recycle(WebDriver driver, String reason) {
+        String browser = WORKER_BROWSER.get();
+        CURRENT.remove();
+        USES.remove(driver);
+        POOL.discard(driver);
+        StartupMetrics.recordRecycle(reason);
+        POOL.prewarm(browser, 1, () -> setupDriver(browser, true), RELAUNCHER);
     }
 
     public static void quitDriver() {
+        WebDriver driver = CURRENT.get();
         if (driver != null) {
-            driver.quit();
-            driver = null;
+            CURRENT.remove();
+            USES.remove(driver);
+            POOL.discard(driver);
         }
     }
 
     public static void closeDriver() {
+        WebDriver driver = CURRENT.get();
         if (driver != null) {
             driver.close();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Bounded pool of browser sessions. At most `capacity` sessions are leased at the same time,
+// and idle sessions stay warm per browser type until another lease asks for them.
+// prewarm() launches sessions ahead of the first lease; a lease that finds one still starting waits for it.
+// Sessions still starting count against the capacity like any other, so driver.remote never asks the Grid
+// for more sessions than it has slots.
+class DriverPool {
+    private final int capacity;
+    private final Duration leaseTimeout;
+    private final Function<String, WebDriver> factory;
+    private final Semaphore leases;
+
+    private final Map<String, Deque<WebDriver>> idle = new HashMap<>();
+    private final Map<String, Deque<CompletableFuture<WebDriver>>> warming = new HashMap<>();
+    private final Set<WebDriver> live = ConcurrentHashMap.newKeySet();
+    // Pre-launches of another browser taken over by a lease, until their session has been quit
+    private int retiring;
+    private boolean closed;
+
+    DriverPool(int capacity, Duration leaseTimeout, Function<String, WebDriver> factory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Driver pool size must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.leaseTimeout = leaseTimeout;
+        this.factory = factory;
+        this.leases = new Semaphore(capacity, true);
+    }
+
+    WebDriver lease(String browser) {
+        acquireLease();
+
+        WebDriver driver;
+        WebDriver evicted = null;
+        CompletableFuture<WebDriver> launching = null;
+        CompletableFuture<WebDriver> displaced = null;
+        synchronized (this) {
+            driver = idle.computeIfAbsent(browser, key -> new ArrayDeque<>()).pollFirst();
+            if (driver == null) {
+                launching = warming.computeIfAbsent(browser, key -> new ArrayDeque<>()).pollFirst();
+            }
+            if (driver == null && launching == null && occupied() >= capacity) {
+                // All free slots hold warm or starting sessions of another browser type, make room for this one
+                evicted = pollAnyIdle();
+                if (evicted == null) {
+                    displaced = pollAnyWarming();
+                    if (displaced != null) {
+                        retiring++;
+                    }
+                }
+            }
+        }
+        if (evicted != null) {
+            quietlyQuit(evicted);
+        }
+        if (displaced != null) {
+            retire(displaced);
+        }
+        if (driver != null) {
+            return driver;
+        }
+        if (launching != null) {
+            try {
+                driver = launching.join();
+                live.add(driver);
+                return driver;
+            } catch (CompletionException | CancellationException e) {
+                // The pre-launch failed, start a session the normal way below
+            }
+        }
+
+        try {
+            driver = factory.apply(browser);
+        } catch (RuntimeException | Error e) {
+            leases.release();
+            throw e;
+        }
+        live.add(driver);
+        return driver;
+    }
+
+    // Starts up to `sessions` browsers in the background, never more than there are free slots
+    void prewarm(String browser, int sessions, Supplier<WebDriver> launcher, Executor executor) {
+        for (int i = 0; i < sessions; i++) {
+            CompletableFuture<WebDriver> launch = new CompletableFuture<>();
+            synchronized (this) {
+                if (closed || occupied() >= capacity) {
+                    return;
+                }
+                warming.computeIfAbsent(browser, key -> new ArrayDeque<>()).addLast(launch);
+            }
+            launch.whenComplete((driver, error) -> parkPrewarmed(browser, launch, driver));
+            executor.execute(() -> {
+                try {
+                    launch.complete(launcher.get());
+                } catch (Throwable e) {
+                    // Errors too (e.g. NoClassDefFoundError), or a lease waiting on this launch would never return
+                    launch.completeExceptionally(e);
+                }
+            });
+        }
+    }
+
+    // A pre-launched session nobody has claimed yet goes to the idle sessions
+    private void parkPrewarmed(String browser, CompletableFuture<WebDriver> launch, WebDriver driver) {
+        synchronized (this) {
+            if (!warming.get(browser).remove(launch)) {
+                // Claimed by a waiting lease, which takes over the session
+                return;
+            }
+            if (driver != null && !closed) {
+                live.add(driver);
+                idle.computeIfAbsent(browser, key -> new ArrayDeque<>()).addLast(driver);
+                return;
+            }
+        }
+        if (driver != null) {
+            quietlyQuit(driver);
+        }
+    }
+
+    void release(String browser, WebDriver driver) {
+        synchronized (this) {
+            idle.computeIfAbsent(browser, key -> new ArrayDeque<>()).addFirst(driver);
+        }
+        leases.release();
+    }
+
+    void discard(WebDriver driver) {
+        quietlyQuit(driver);
+        leases.release();
+    }
+
+    void shutdown() {
+        List<WebDriver> sessions;
+        synchronized (this) {
+            closed = true;
+            sessions = new ArrayList<>(live);
+            idle.clear();
+        }
+        sessions.forEach(this::quietlyQuit);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private void acquireLease() {
+        try {
+            if (!leases.tryAcquire(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No browser session became available within " + leaseTimeout
+                        + " (driver.pool.size=" + capacity + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+    }
+
+    // Sessions that hold a slot: leased, idle, starting, or being quit to make room
+    private int occupied() {
+        return live.size() + warmingCount() + retiring;
+    }
+
+    private int warmingCount() {
+        int count = 0;
+        for (Deque<CompletableFuture<WebDriver>> launches : warming.values()) {
+            count += launches.size();
+        }
+        return count;
+    }
+
+    private WebDriver pollAnyIdle() {
+        for (Deque<WebDriver> sessions : idle.values()) {
+            WebDriver driver = sessions.pollLast();
+            if (driver != null) {
+                return driver;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<WebDriver> pollAnyWarming() {
+        for (Deque<CompletableFuture<WebDriver>> launches : warming.values()) {
+            CompletableFuture<WebDriver> launch = launches.pollLast();
+            if (launch != null) {
+                return launch;
+            }
+        }
+        return null;
+    }
+
+    // Waits for a pre-launch taken over from another browser type and quits its session, so the slot is
+    // free before this lease starts its own
+    private void retire(CompletableFuture<WebDriver> launch) {
+        try {
+            quietlyQuit(launch.join());
+        } catch (CompletionException | CancellationException e) {
+            // The launch failed, it never held a session
+        } finally {
+            synchronized (this) {
+                retiring--;
+            }
+        }
+    }
+
+    private void quietlyQuit(WebDriver driver) {
+        live.remove(driver);
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            // Session is already gone, nothing left to clean up
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Screenshot, DOM, browser console log and stack trace of a failed test, written as one zip per failure to
+// diagnostics.dir (default build/reports/failures), named after the test, the browser, a hash of the JUnit
+// unique id (which tells invocations of a parameterized or repeated test apart) and the time of the failure,
+// so neither cross-browser runs nor later runs overwrite an earlier capture. Only the WebDriver calls run on the test thread, since
+// the session is reset or recycled right after; compressing and writing happen on diagnostics.threads
+// background writers. Up to diagnostics.queue captures wait in memory, beyond that a failing test writes
+// its own, which bounds memory when many tests fail at once. Pending writes finish at JVM exit.
+public final class FailureDiagnostics {
+    private static final Path DIR = Paths.get(System.getProperty("diagnostics.dir", "build/reports/failures"));
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("diagnostics.enabled", "true"));
+    private static final int THREADS = Integer.getInteger("diagnostics.threads", 2);
+    private static final int QUEUE = Integer.getInteger("diagnostics.queue", 64);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS").withZone(ZoneOffset.UTC);
+
+    private static final AtomicInteger WRITER_THREADS = new AtomicInteger();
+    private static final ThreadPoolExecutor WRITERS = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE), FailureDiagnostics::writerThread, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    static {
+        WRITERS.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureDiagnostics::drain, "failure-diagnostics-drain"));
+    }
+
+    private FailureDiagnostics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // Captures on the calling thread and completes with the zip once a writer has written it
+    public static CompletableFuture<Path> capture(WebDriver driver, String testName, String uniqueId, String browser,
+                                                  Throwable failure) {
+        Capture capture = new Capture(testName, uniqueId, browser, failure);
+        try {
+            capture.url = driver.getCurrentUrl();
+        } catch (WebDriverException e) {
+            capture.problems.add("url: " + e.getMessage());
+        }
+        if (driver instanceof TakesScreenshot) {
+            try {
+                capture.screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            } catch (WebDriverException e) {
+                capture.problems.add("screenshot: " + e.getMessage());
+            }
+        }
+        try {
+            capture.dom = driver.getPageSource();
+        } catch (WebDriverException e) {
+            capture.problems.add("dom: " + e.getMessage());
+        }
+        try {
+            // Chrome keeps the console; Firefox does not support log retrieval
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                capture.browserLog.add(Instant.ofEpochMilli(entry.getTimestamp()) + " " + entry.getLevel() + " " + entry.getMessage());
+            }
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            capture.problems.add("browser log: " + e.getMessage());
+        }
+        return CompletableFuture.supplyAsync(() -> write(capture), WRITERS);
+    }
+
+    private static Path write(Capture capture) {
+        FlightEvents.DiagnosticsEvent event = new FlightEvents.DiagnosticsEvent();
+        event.begin();
+        Path file = DIR.resolve(capture.fileName());
+        try {
+            Files.createDirectories(DIR);
+            Path temp = Files.createTempFile(DIR, file.getFileName().toString(), ".tmp");
+            long captured = 0;
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(temp))) {
+                captured += text(zip, "failure.txt", capture.summary());
+                if (capture.screenshot != null) {
+                    // Already compressed, stored as is
+                    captured += stored(zip, "screenshot.png", capture.screenshot);
+                }
+                if (capture.dom != null) {
+                    captured += text(zip, "dom.html", capture.dom);
+                }
+                if (!capture.browserLog.isEmpty()) {
+                    captured += text(zip, "browser.log", String.join("\n", capture.browserLog));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (event.shouldCommit()) {
+                event.test = capture.testName;
+                event.file = file.toString();
+                event.capturedBytes = captured;
+                event.writtenBytes = Files.size(file);
+                event.commit();
+            }
+            return file;
+        } catch (IOException e) {
+            System.err.println("Could not write failure diagnostics " + file + ": " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long text(ZipOutputStream zip, String name, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(bytes);
+        zip.closeEntry();
+        return bytes.length;
+    }
+
+    private static long stored(ZipOutputStream zip, String name, byte[] bytes) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+        return bytes.length;
+    }
+
+    private static void drain() {
+        WRITERS.shutdown();
+        try {
+            if (!WRITERS.awaitTermination(60, TimeUnit.SECONDS)) {
+                System.err.println(WRITERS.getQueue().size() + " failure diagnostics were not written before exit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread writerThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "failure-diagnostics-" + WRITER_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Capture {
+        final String testName;
+        final String uniqueId;
+        final String browser;
+        final Throwable failure;
+        final Instant failedAt = Instant.now();
+        final List<String> browserLog = new ArrayList<>();
+        final List<String> problems = new ArrayList<>();
+        String url;
+        byte[] screenshot;
+        String dom;
+
+        Capture(String testName, String uniqueId, String browser, Throwable failure) {
+            this.testName = testName;
+            this.uniqueId = uniqueId;
+            this.browser = browser;
+            this.failure = failure;
+        }
+
+        // e.g. tests.LoginTest.validLogin_chrome_1f3a9c02_20260118T101502.337.zip
+        String fileName() {
+            String name = testName + "_" + browser + "_" + String.format("%08x", uniqueId.hashCode()) + "_" + FILE_TIME.format(failedAt);
+            return name.replaceAll("[^A-Za-z0-9._-]", "_") + ".zip";
+        }
+
+        String summary() {
+            StringWriter summary = new StringWriter();
+            PrintWriter out = new PrintWriter(summary);
+            out.println("Test: " + testName);
+            out.println("Unique id: " + uniqueId);
+            out.println("Browser: " + browser);
+            out.println("Failed at: " + failedAt);
+            out.println("URL: " + url);
+            for (String problem : problems) {
+                out.println("Not captured - " + problem);
+            }
+            out.println();
+            if (failure != null) {
+                failure.printStackTrace(out);
+            }
+            out.flush();
+            return summary.toString();
+        }
+    }
+}
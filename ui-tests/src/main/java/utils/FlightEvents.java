@@ -0,0 +1,94 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JDK Flight Recorder events of the UI suite: page-object actions (PageAction), explicit waits (TimedWait,
+// PageReadiness) and failure diagnostics (FailureDiagnostics), each tagged with the running test, so a
+// recording (./gradlew :ui-tests:test -Pjfr=true) shows where a test's time went next to GC, JIT and
+// thread activity. Events cost next to nothing while no recording is running.
+public final class FlightEvents {
+    private static final String CATEGORY = "UI Tests";
+    private static final ThreadLocal<String> TEST = new ThreadLocal<>();
+
+    private FlightEvents() {
+    }
+
+    // Tags the events of the calling thread until finishTest()
+    public static void startTest(String testName) {
+        TEST.set(testName);
+    }
+
+    public static void finishTest() {
+        TEST.remove();
+    }
+
+    static String currentTest() {
+        return TEST.get();
+    }
+
+    @Name("paylocity.ui.PageAction")
+    @Label("Page Action")
+    @Category({CATEGORY, "Page Objects"})
+    @Description("A page-object method call, e.g. DashboardPage.reload")
+    @StackTrace(false)
+    static final class PageActionEvent extends Event {
+        @Label("Test")
+        String test;
+
+        @Label("Action")
+        String action;
+
+        @Label("Outer Action")
+        @Description("Page-object method the test called, when this action ran inside it")
+        String outer;
+
+        @Label("WebDriver Commands")
+        long commands;
+    }
+
+    @Name("paylocity.ui.Wait")
+    @Label("Explicit Wait")
+    @Category({CATEGORY, "Waits"})
+    @Description("A wait for a condition or for the page to settle")
+    @StackTrace(false)
+    static final class WaitEvent extends Event {
+        @Label("Test")
+        String test;
+
+        @Label("Action")
+        String action;
+
+        @Label("Condition")
+        String condition;
+
+        @Label("Satisfied")
+        boolean satisfied;
+    }
+
+    @Name("paylocity.ui.FailureDiagnostics")
+    @Label("Failure Diagnostics")
+    @Category({CATEGORY, "Diagnostics"})
+    @Description("Compressing and writing a failed test's screenshot, DOM and browser log, off the test thread")
+    @StackTrace(false)
+    static final class DiagnosticsEvent extends Event {
+        @Label("Test")
+        String test;
+
+        @Label("File")
+        String file;
+
+        @Label("Captured Size")
+        @DataAmount
+        long capturedBytes;
+
+        @Label("Written Size")
+        @DataAmount
+        long writtenBytes;
+    }
+}
@@ -0,0 +1,340 @@
+package utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Request interception through the Chrome DevTools Protocol, switched on per run with network.shaping=true:
+//   network.block  URL globs answered with 204 No Content (analytics and trackers by default)
+//   network.stub   URL globs answered with an empty 200 of the matching content type
+//   network.cache  static assets (network.cache.types) from hosts other than the application under test are
+//                  fetched once and then served from network.cache.dir until network.cache.ttlHours passes
+// With shaping on, pages load with the "eager" strategy (driver.pageLoadStrategy overrides it); the page
+// objects already wait for the elements, table rows and XHRs they need instead of the load event.
+// Counts, bytes and time saved are written to network.json in webdriver.metrics.dir at JVM exit.
+// Firefox has no CDP interception in Selenium, so there only the page-load strategy applies.
+public final class NetworkShaping {
+    private static final boolean ENABLED = Boolean.getBoolean("network.shaping");
+    private static final List<String> BLOCK = list(System.getProperty("network.block",
+            "*google-analytics.com/*,*googletagmanager.com/*,*doubleclick.net/*,*hotjar.com/*,*newrelic.com/*,*nr-data.net/*"));
+    private static final List<String> STUB = list(System.getProperty("network.stub", ""));
+    private static final boolean CACHE = Boolean.parseBoolean(System.getProperty("network.cache", "true"));
+    private static final Set<String> CACHE_TYPES = Set.copyOf(list(System.getProperty("network.cache.types",
+            "css,js,woff,woff2,ttf,otf,eot,svg,png,jpg,jpeg,gif,ico,webp")));
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("network.cache.dir",
+            Paths.get(System.getProperty("user.home"), ".cache", "paylocity-ui-tests", "assets").toString()));
+    private static final Duration CACHE_TTL = Duration.ofHours(Long.getLong("network.cache.ttlHours", 24));
+    private static final String PAGE_LOAD_STRATEGY = System.getProperty("driver.pageLoadStrategy", ENABLED ? "eager" : "normal");
+    private static final Path REPORT_FILE = Paths.get(System.getProperty("webdriver.metrics.dir", "build/reports/webdriver-commands"), "network.json");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "css", "text/css", "js", "application/javascript", "woff", "font/woff", "woff2", "font/woff2",
+            "ttf", "font/ttf", "svg", "image/svg+xml", "png", "image/png", "gif", "image/gif", "ico", "image/x-icon");
+
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> MATCHES = new ConcurrentHashMap<>();
+    private static final Traffic BLOCKED = new Traffic();
+    private static final Traffic STUBBED = new Traffic();
+    private static final Traffic CACHE_HITS = new Traffic();
+    private static final Traffic CACHE_STORES = new Traffic();
+    private static final Traffic PASSED = new Traffic();
+    private static final LongAdder INSTALLED = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(NetworkShaping::write, "network-shaping-report"));
+        }
+    }
+
+    private NetworkShaping() {
+    }
+
+    static PageLoadStrategy pageLoadStrategy() {
+        return PageLoadStrategy.fromString(PAGE_LOAD_STRATEGY);
+    }
+
+    // Call on the undecorated driver right after it started; the interceptor lives as long as the session
+    static void install(WebDriver driver) {
+        if (!ENABLED) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            System.err.println("network.shaping: " + driver.getClass().getSimpleName()
+                    + " has no DevTools connection, requests are not intercepted");
+            return;
+        }
+        try {
+            intercept(driver);
+            INSTALLED.increment();
+        } catch (RuntimeException e) {
+            // e.g. no CDP support for this browser version; the session still works, just unshaped
+            System.err.println("network.shaping: could not intercept requests: " + e.getMessage());
+        }
+    }
+
+    private static void intercept(WebDriver driver) {
+        Set<String> applicationHosts = applicationHosts();
+        new NetworkInterceptor(driver, (Filter) next -> request -> {
+            String url = request.getUri();
+            String pattern = firstMatch(BLOCK, url);
+            if (pattern != null) {
+                MATCHES.computeIfAbsent(pattern, key -> new LongAdder()).increment();
+                BLOCKED.record(0, 0);
+                return new HttpResponse().setStatus(204);
+            }
+            pattern = firstMatch(STUB, url);
+            if (pattern != null) {
+                MATCHES.computeIfAbsent(pattern, key -> new LongAdder()).increment();
+                STUBBED.record(0, 0);
+                return new HttpResponse()
+                        .setHeader("Content-Type", contentType(url))
+                        .setHeader("Access-Control-Allow-Origin", "*")
+                        .setContent(Contents.bytes(new byte[0]));
+            }
+            if (!isCacheable(request, applicationHosts)) {
+                long started = System.nanoTime();
+                HttpResponse response = next.execute(request);
+                PASSED.record(0, System.nanoTime() - started);
+                return response;
+            }
+
+            Path body = CACHE_DIR.resolve(key(url) + ".body");
+            Properties entry = loadEntry(body);
+            if (entry != null) {
+                long bytes = Long.parseLong(entry.getProperty("bytes", "0"));
+                CACHE_HITS.record(bytes, Long.parseLong(entry.getProperty("fetchNanos", "0")));
+                return cachedResponse(body, entry);
+            }
+            long started = System.nanoTime();
+            HttpResponse response = next.execute(request);
+            long fetchNanos = System.nanoTime() - started;
+            if (response.getStatus() != 200) {
+                PASSED.record(0, fetchNanos);
+                return response;
+            }
+            byte[] content = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(content));
+            store(url, body, response, content, fetchNanos);
+            CACHE_STORES.record(content.length, fetchNanos);
+            return response;
+        });
+    }
+
+    // The application's own assets are never cached, so a deployment is always tested with its current code.
+    // Read per session rather than once, since the stub server sets base.url/login.url when the launcher opens
+    private static Set<String> applicationHosts() {
+        return Set.copyOf(List.of(
+                host(System.getProperty("base.url", "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod")),
+                host(System.getProperty("login.url", "https://wmxrwq14uc.execute-api.us-east-1.amazonaws.com/Prod/Account/Login"))));
+    }
+
+    private static boolean isCacheable(HttpRequest request, Set<String> applicationHosts) {
+        if (!CACHE || request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        String url = request.getUri();
+        if (applicationHosts.contains(host(url))) {
+            return false;
+        }
+        return CACHE_TYPES.contains(extension(url));
+    }
+
+    private static HttpResponse cachedResponse(Path body, Properties entry) {
+        try {
+            HttpResponse response = new HttpResponse()
+                    .setHeader("Content-Type", entry.getProperty("contentType", "application/octet-stream"))
+                    .setContent(Contents.bytes(Files.readAllBytes(body)));
+            // Fonts loaded from a CDN are cross-origin requests
+            String allowOrigin = entry.getProperty("allowOrigin");
+            if (allowOrigin != null) {
+                response.setHeader("Access-Control-Allow-Origin", allowOrigin);
+            }
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read cached asset " + body, e);
+        }
+    }
+
+    private static Properties loadEntry(Path body) {
+        Path metadata = body.resolveSibling(body.getFileName().toString().replace(".body", ".properties"));
+        if (!Files.exists(metadata) || !Files.exists(body)) {
+            return null;
+        }
+        Properties entry = new Properties();
+        try (InputStream in = Files.newInputStream(metadata)) {
+            entry.load(in);
+            String storedAt = entry.getProperty("storedAt");
+            return storedAt != null && Instant.parse(storedAt).plus(CACHE_TTL).isAfter(Instant.now()) ? entry : null;
+        } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+            // Unreadable entry, fetch the asset again
+            return null;
+        }
+    }
+
+    // Written to temporary files and moved into place, so parallel sessions never read half an entry
+    private static void store(String url, Path body, HttpResponse response, byte[] content, long fetchNanos) {
+        Properties entry = new Properties();
+        entry.setProperty("url", url);
+        entry.setProperty("contentType", response.getHeader("Content-Type") != null
+                ? response.getHeader("Content-Type") : contentType(url));
+        if (response.getHeader("Access-Control-Allow-Origin") != null) {
+            entry.setProperty("allowOrigin", response.getHeader("Access-Control-Allow-Origin"));
+        }
+        entry.setProperty("bytes", String.valueOf(content.length));
+        entry.setProperty("fetchNanos", String.valueOf(fetchNanos));
+        entry.setProperty("storedAt", Instant.now().toString());
+        Path metadata = body.resolveSibling(body.getFileName().toString().replace(".body", ".properties"));
+        try {
+            Files.createDirectories(CACHE_DIR);
+            Path bodyTmp = Files.createTempFile(CACHE_DIR, "asset", ".tmp");
+            Files.write(bodyTmp, content);
+            Files.move(bodyTmp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Path metadataTmp = Files.createTempFile(CACHE_DIR, "asset", ".tmp");
+            try (OutputStream out = Files.newOutputStream(metadataTmp)) {
+                entry.store(out, null);
+            }
+            Files.move(metadataTmp, metadata, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Not cached this time; the asset was still delivered
+            System.err.println("network.shaping: could not cache " + url + ": " + e.getMessage());
+        }
+    }
+
+    private static String firstMatch(List<String> globs, String url) {
+        for (String glob : globs) {
+            if (PATTERNS.computeIfAbsent(glob, NetworkShaping::compile).matcher(url).matches()) {
+                return glob;
+            }
+        }
+        return null;
+    }
+
+    // "*" matches any run of characters, everything else literally
+    static Pattern compile(String glob) {
+        return Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+                .map(part -> part.isEmpty() ? "" : Pattern.quote(part))
+                .collect(Collectors.joining(".*")));
+    }
+
+    private static String contentType(String url) {
+        return CONTENT_TYPES.getOrDefault(extension(url), "text/plain");
+    }
+
+    private static String extension(String url) {
+        String path = url.replaceAll("[?#].*", "");
+        String file = path.substring(path.lastIndexOf('/') + 1);
+        int dot = file.lastIndexOf('.');
+        return dot < 0 ? "" : file.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String url) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static List<String> list(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    static Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("pageLoadStrategy", PAGE_LOAD_STRATEGY);
+        json.put("sessions", INSTALLED.sum());
+        json.put("blocked", BLOCKED.count.sum());
+        json.put("stubbed", STUBBED.count.sum());
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", CACHE_HITS.count.sum());
+        // What the cached copies took to download when they were stored
+        cache.put("bytesSaved", CACHE_HITS.bytes.sum());
+        cache.put("msSaved", CACHE_HITS.millis());
+        cache.put("stored", CACHE_STORES.count.sum());
+        cache.put("storedBytes", CACHE_STORES.bytes.sum());
+        cache.put("storeFetchMs", CACHE_STORES.millis());
+        json.put("cache", cache);
+        Map<String, Object> passed = new LinkedHashMap<>();
+        passed.put("requests", PASSED.count.sum());
+        passed.put("ms", PASSED.millis());
+        json.put("network", passed);
+        Map<String, Object> matches = new LinkedHashMap<>();
+        MATCHES.forEach((pattern, count) -> matches.put(pattern, count.sum()));
+        json.put("patterns", matches);
+        return json;
+    }
+
+    private static void write() {
+        if (INSTALLED.sum() == 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(REPORT_FILE.getParent());
+            Files.write(REPORT_FILE, new Json().toJson(toJson()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not write " + REPORT_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Traffic {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long bytes, long nanos) {
+            count.increment();
+            this.bytes.add(bytes);
+            this.nanos.add(nanos);
+        }
+
+        double millis() {
+            return Math.round(nanos.sum() / 1000.0) / 1000.0;
+        }
+    }
+}
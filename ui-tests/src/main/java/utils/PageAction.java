@@ -0,0 +1,60 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Marks a page-object method call so WebDriver commands can be attributed to it:
+//     try (PageAction action = PageAction.start("DashboardPage.isEmployeeInTable")) { ... }
+// Actions nest; every open action on the thread is charged for the commands sent while it is open.
+// Each action is also a Flight Recorder event (FlightEvents.PageActionEvent) while a recording runs.
+public final class PageAction implements AutoCloseable {
+    private static final ThreadLocal<Deque<PageAction>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final String name;
+    private final long startNanos;
+    private final FlightEvents.PageActionEvent event = new FlightEvents.PageActionEvent();
+    private long commands;
+
+    private PageAction(String name) {
+        this.name = name;
+        this.startNanos = System.nanoTime();
+    }
+
+    public static PageAction start(String name) {
+        PageAction action = new PageAction(name);
+        if (action.event.isEnabled()) {
+            action.event.test = FlightEvents.currentTest();
+            action.event.action = name;
+            action.event.outer = outermost();
+            action.event.begin();
+        }
+        OPEN.get().push(action);
+        return action;
+    }
+
+    // Name of the outermost open action, i.e. the page-object method the test called
+    static String outermost() {
+        PageAction action = OPEN.get().peekLast();
+        return action == null ? null : action.name;
+    }
+
+    static void chargeCommand() {
+        for (PageAction action : OPEN.get()) {
+            action.commands++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        OPEN.get().remove(this);
+        CommandMetrics.recordAction(name, System.nanoTime() - startNanos, commands);
+        if (event.isEnabled()) {
+            event.commands = commands;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+// Drop-in replacement for PageFactory.initElements that keeps the @FindBy style but remembers located
+// elements: a field is looked up on first use and reused afterwards, and looked up again only after
+// invalidate() (navigation) or when the browser reports it stale. Lookups of several fields, and their
+// visibility checks, can be batched into a single script call with prefetch()/allDisplayed().
+// List<WebElement> fields keep Selenium's default (uncached) proxies.
+public class PageElements {
+    // arguments[0]: lookups as [strategy, value]; arguments[1]: elements whose visibility is requested,
+    // either an element or the index of its lookup. Returns [found elements, visibility flags].
+    private static final String BATCH_SCRIPT =
+            "function find(strategy, value) {" +
+            "  switch (strategy) {" +
+            "    case 'id': return document.getElementById(value);" +
+            "    case 'css': return document.querySelector(value);" +
+            "    case 'name': return document.getElementsByName(value)[0] || null;" +
+            "    case 'className': return document.getElementsByClassName(value)[0] || null;" +
+            "    case 'tagName': return document.getElementsByTagName(value)[0] || null;" +
+            "    case 'xpath': return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "  }" +
+            "  return null;" +
+            "}" +
+            "function visible(e) {" +
+            "  if (!e || !e.isConnected) { return false; }" +
+            "  for (var p = e; p; p = p.parentElement) {" +
+            "    var style = getComputedStyle(p);" +
+            "    if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') { return false; }" +
+            "  }" +
+            "  var rect = e.getBoundingClientRect();" +
+            "  return rect.width > 0 && rect.height > 0;" +
+            "}" +
+            "var found = arguments[0].map(function(l) { return find(l[0], l[1]); });" +
+            "var targets = arguments[1].map(function(t) { return typeof t === 'number' ? found[t] : t; });" +
+            "return [found, targets.map(visible)];";
+
+    private final WebDriver driver;
+    private final List<CachedElement> elements = new ArrayList<>();
+
+    private PageElements(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static PageElements init(WebDriver driver, Object page) {
+        PageElements pageElements = new PageElements(driver);
+        DefaultFieldDecorator fallback = new DefaultFieldDecorator(new DefaultElementLocatorFactory(driver));
+        FieldDecorator decorator = (loader, field) -> WebElement.class.equals(field.getType())
+                ? pageElements.proxy(field)
+                : fallback.decorate(loader, field);
+        PageFactory.initElements(decorator, page);
+        return pageElements;
+    }
+
+    // Forget every located element, e.g. after the page was reloaded
+    public void invalidate() {
+        synchronized (elements) {
+            elements.forEach(CachedElement::clear);
+        }
+    }
+
+    // Locates every field that is not cached yet with one script call; fields the page does not have yet stay unresolved
+    public void prefetch() {
+        batch(List.of());
+    }
+
+    // Visibility of several fields in one round trip (also resolving any field not located yet)
+    public boolean allDisplayed(WebElement... fields) {
+        List<CachedElement> requested = new ArrayList<>(fields.length);
+        for (WebElement field : fields) {
+            CachedElement element = cached(field);
+            CommandMetrics.recordField(element.name);
+            requested.add(element);
+        }
+        for (boolean displayed : batch(requested)) {
+            if (!displayed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Boolean> batch(List<CachedElement> requested) {
+        // Fields the script cannot locate (e.g. @FindBy(linkText)) are located the normal way first
+        for (CachedElement element : requested) {
+            if (element.strategy == null) {
+                element.resolve();
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runBatch(requested);
+            } catch (StaleElementReferenceException e) {
+                if (attempt == 2) {
+                    throw e;
+                }
+                // A cached element passed to the script was replaced; locate everything again
+                invalidate();
+            }
+        }
+    }
+
+    private List<Boolean> runBatch(List<CachedElement> requested) {
+        List<CachedElement> pending;
+        synchronized (elements) {
+            pending = new ArrayList<>(elements);
+        }
+        pending.removeIf(element -> element.strategy == null || element.element != null);
+        if (pending.isEmpty() && requested.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> lookups = new ArrayList<>(pending.size());
+        for (CachedElement element : pending) {
+            lookups.add(List.of(element.strategy, element.value));
+        }
+        List<Object> targets = new ArrayList<>(requested.size());
+        for (CachedElement element : requested) {
+            WebElement current = element.element;
+            targets.add(current != null ? current : pending.indexOf(element));
+        }
+
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, lookups, targets);
+        List<?> found = (List<?>) result.get(0);
+        for (int i = 0; i < pending.size(); i++) {
+            if (found.get(i) instanceof WebElement) {
+                pending.get(i).element = (WebElement) found.get(i);
+            }
+        }
+        List<Boolean> displayed = new ArrayList<>(requested.size());
+        for (Object flag : (List<?>) result.get(1)) {
+            displayed.add(Boolean.TRUE.equals(flag));
+        }
+        return displayed;
+    }
+
+    private CachedElement cached(WebElement field) {
+        if (field == null || !Proxy.isProxyClass(field.getClass())
+                || !(Proxy.getInvocationHandler(field) instanceof CachedElement)) {
+            throw new IllegalArgumentException("Not a field initialised by PageElements: " + field);
+        }
+        return (CachedElement) Proxy.getInvocationHandler(field);
+    }
+
+    private WebElement proxy(Field field) {
+        if (!field.isAnnotationPresent(FindBy.class) && !field.isAnnotationPresent(FindBys.class)
+                && !field.isAnnotationPresent(FindAll.class)) {
+            return null;
+        }
+        CachedElement element = new CachedElement(field.getDeclaringClass().getSimpleName() + "." + field.getName(),
+                new Annotations(field).buildBy(), field.getAnnotation(FindBy.class));
+        synchronized (elements) {
+            elements.add(element);
+        }
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class}, element);
+    }
+
+    private final class CachedElement implements InvocationHandler {
+        // e.g. "DashboardPage.employeesTable", recorded per test for change-impact selection
+        private final String name;
+        private final By by;
+        // Script lookup for @FindBy(id/css/name/className/tagName/xpath); null means findElement only
+        private final String strategy;
+        private final String value;
+        private volatile WebElement element;
+
+        CachedElement(String name, By by, FindBy findBy) {
+            this.name = name;
+            this.by = by;
+            String[] lookup = lookup(findBy);
+            this.strategy = lookup == null ? null : lookup[0];
+            this.value = lookup == null ? null : lookup[1];
+        }
+
+        void clear() {
+            element = null;
+        }
+
+        WebElement resolve() {
+            WebElement current = element;
+            if (current == null) {
+                current = driver.findElement(by);
+                element = current;
+            }
+            return current;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getWrappedElement":
+                    return resolve();
+                case "toString":
+                    return "Cached element for " + by;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            CommandMetrics.recordField(name);
+            try {
+                return method.invoke(resolve(), args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+            }
+            // The node was replaced (re-render or navigation): locate it again and retry once
+            clear();
+            try {
+                return method.invoke(resolve(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static String[] lookup(FindBy findBy) {
+        if (findBy == null) {
+            return null;
+        }
+        if (!findBy.id().isEmpty()) {
+            return new String[]{"id", findBy.id()};
+        }
+        if (!findBy.css().isEmpty()) {
+            return new String[]{"css", findBy.css()};
+        }
+        if (!findBy.name().isEmpty()) {
+            return new String[]{"name", findBy.name()};
+        }
+        if (!findBy.className().isEmpty()) {
+            return new String[]{"className", findBy.className()};
+        }
+        if (!findBy.tagName().isEmpty()) {
+            return new String[]{"tagName", findBy.tagName()};
+        }
+        if (!findBy.xpath().isEmpty()) {
+            return new String[]{"xpath", findBy.xpath()};
+        }
+        return null;
+    }
+}
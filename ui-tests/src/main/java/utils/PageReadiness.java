@@ -0,0 +1,197 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Waits on signals raised by the page itself instead of sleeping: outstanding XHR/fetch calls,
+// DOM mutations under a watched element and Bootstrap's hidden.bs.modal transition.
+// Every wait is a single async script call that returns as soon as the page is settled, and throws a
+// TimeoutException when it did not settle in time. Waits are reported per test by CommandMetrics.
+public class PageReadiness {
+    private static final long QUIET_MILLIS = Long.getLong("readiness.quietMillis", 100);
+
+    // Installs the probes once per document; both scripts start with it, so a wait needs no separate call
+    private static final String PROBES =
+            "var r = window.__readiness;" +
+            "if (!r) {" +
+            "  r = window.__readiness = {pending: 0, completed: 0, lastChange: performance.now(), armedAt: 0, modalHiddenAt: 0," +
+            "    listeners: [], observed: null};" +
+            "  r.fire = function() { r.lastChange = performance.now(); r.listeners.slice().forEach(function(l) { l(); }); };" +
+            "  var send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function() {" +
+            "    r.pending++;" +
+            "    this.addEventListener('loadend', function() { r.pending--; r.completed++; r.fire(); });" +
+            "    return send.apply(this, arguments);" +
+            "  };" +
+            "  if (window.fetch) {" +
+            "    var fetch = window.fetch;" +
+            "    window.fetch = function() {" +
+            "      r.pending++;" +
+            "      return fetch.apply(this, arguments).finally(function() { r.pending--; r.completed++; r.fire(); });" +
+            "    };" +
+            "  }" +
+            "  var onHidden = function() { r.modalHiddenAt = performance.now(); r.fire(); };" +
+            "  document.addEventListener('hidden.bs.modal', onHidden);" +
+            "  if (window.jQuery) { window.jQuery(document).on('hidden.bs.modal', onHidden); }" +
+            // Only the watched table restarts the quiet period, not spinners or class toggles elsewhere on the page;
+            // until the table exists, only elements added to the page are watched
+            "  r.observer = new MutationObserver(r.fire);" +
+            "  r.watch = function(selector) {" +
+            "    var table = document.querySelector(selector);" +
+            "    if (table !== null && table === r.observed) { return; }" +
+            "    r.observer.disconnect();" +
+            "    r.observed = table;" +
+            "    if (table !== null) {" +
+            "      r.observer.observe(table, {childList: true, subtree: true, characterData: true, attributes: true, attributeFilter: ['class', 'style']});" +
+            "    } else {" +
+            "      r.observer.observe(document.body, {childList: true, subtree: true});" +
+            "    }" +
+            "  };" +
+            "}";
+
+    // Marks the start of an action, so only a modal hidden after it counts as closed
+    private static final String ARM_SCRIPT = PROBES +
+            "r.armedAt = performance.now();" +
+            "return r.pending;";
+
+    // arguments: mode ('table' | 'modal'), table selector, quiet period, timeout, callback
+    private static final String WAIT_SCRIPT = PROBES +
+            "var mode = arguments[0], tableSelector = arguments[1], quiet = arguments[2], timeout = arguments[3];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var start = performance.now(), timer = null, finished = false;" +
+            "function modalOpen() {" +
+            "  return Array.prototype.some.call(document.querySelectorAll('.modal'), function(m) {" +
+            "    return m.classList.contains('show') && getComputedStyle(m).display !== 'none';" +
+            "  }) || document.querySelector('.modal-backdrop') !== null;" +
+            "}" +
+            // Closed means hidden.bs.modal fired since the action was armed, not just that no modal is showing yet
+            "function modalClosed() {" +
+            "  return r.modalHiddenAt >= r.armedAt && !modalOpen();" +
+            "}" +
+            "function tableReady() {" +
+            "  var body = document.querySelector(tableSelector + ' tbody');" +
+            // Rows, or an empty table once the page's requests have come back (an empty tenant)
+            "  return body !== null && (body.rows.length > 0 || r.completed > 0);" +
+            "}" +
+            "function finish(ready) {" +
+            "  if (finished) { return; }" +
+            "  finished = true;" +
+            "  clearTimeout(timer);" +
+            "  r.listeners.splice(r.listeners.indexOf(check), 1);" +
+            "  done({ready: ready, elapsed: performance.now() - start, pending: r.pending});" +
+            "}" +
+            "function check() {" +
+            "  r.watch(tableSelector);" +
+            "  var now = performance.now();" +
+            "  if (now - start >= timeout) { finish(false); return; }" +
+            "  var settled = r.pending === 0 && tableReady() && (mode !== 'modal' || modalClosed());" +
+            "  var idleFor = now - r.lastChange;" +
+            "  clearTimeout(timer);" +
+            "  if (settled && idleFor >= quiet) { finish(true); return; }" +
+            "  timer = setTimeout(check, settled ? quiet - idleFor : timeout - (now - start));" +
+            "}" +
+            "r.listeners.push(check);" +
+            "check();";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final List<WaitTiming> timings = Collections.synchronizedList(new ArrayList<>());
+
+    public PageReadiness(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    // Call before an action that triggers requests so they are counted from the start
+    public void arm() {
+        ((JavascriptExecutor) driver).executeScript(ARM_SCRIPT);
+    }
+
+    public WaitTiming waitForTable(String tableSelector) {
+        return await("table", tableSelector);
+    }
+
+    public WaitTiming waitForModalToClose(String tableSelector) {
+        return await("modal", tableSelector);
+    }
+
+    public List<WaitTiming> getTimings() {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    private WaitTiming await(String mode, String tableSelector) {
+        long started = System.nanoTime();
+        FlightEvents.WaitEvent event = new FlightEvents.WaitEvent();
+        event.begin();
+        Object result = ((JavascriptExecutor) driver)
+                .executeAsyncScript(WAIT_SCRIPT, mode, tableSelector, QUIET_MILLIS, timeout.toMillis());
+
+        boolean ready = false;
+        long pending = 0;
+        if (result instanceof Map) {
+            Map<?, ?> state = (Map<?, ?>) result;
+            ready = Boolean.TRUE.equals(state.get("ready"));
+            pending = state.get("pending") instanceof Number ? ((Number) state.get("pending")).longValue() : 0;
+        }
+
+        WaitTiming timing = new WaitTiming(mode, Duration.ofNanos(System.nanoTime() - started), ready, pending);
+        timings.add(timing);
+        if (event.shouldCommit()) {
+            event.test = FlightEvents.currentTest();
+            event.action = PageAction.outermost();
+            event.condition = "page settled: " + mode + " " + tableSelector;
+            event.satisfied = ready;
+            event.commit();
+        }
+        CommandMetrics.recordWait("readiness." + mode, timing.getElapsed().toNanos(), ready);
+        if (!ready) {
+            throw new TimeoutException("Page did not settle: " + timing);
+        }
+        return timing;
+    }
+
+    public static final class WaitTiming {
+        private final String signal;
+        private final Duration elapsed;
+        private final boolean ready;
+        private final long pendingRequests;
+
+        WaitTiming(String signal, Duration elapsed, boolean ready, long pendingRequests) {
+            this.signal = signal;
+            this.elapsed = elapsed;
+            this.ready = ready;
+            this.pendingRequests = pendingRequests;
+        }
+
+        public String getSignal() {
+            return signal;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        public long getPendingRequests() {
+            return pendingRequests;
+        }
+
+        @Override
+        public String toString() {
+            return signal + (ready ? " ready" : " timed out") + " after " + elapsed.toMillis() + " ms"
+                    + (ready ? "" : " (" + pendingRequests + " requests pending)");
+        }
+    }
+}
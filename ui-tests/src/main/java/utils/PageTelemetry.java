@@ -0,0 +1,439 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Browser-side performance samples of page-object flows: Navigation Timing, Resource Timing, long tasks and
+// CDP Performance.getMetrics (Chrome), e.g. "LoginPage.load", "DashboardPage.load" (navigation start until the
+// employees table had rows) and "DashboardPage.addCycle" (modal opened until it closed and the table refreshed).
+// Chrome sessions get the in-page collector before any page script runs (install()); other browsers get it on
+// first use, so their long tasks and table marks start late. Telemetry commands go to the undecorated driver
+// and are not charged to page actions. perf.telemetry=false turns it off.
+// At JVM exit every sample is written to telemetry.json in webdriver.metrics.dir, one summary line per run is
+// appended to perf.history, and p50 durations more than perf.regression.threshold above the median of the last
+// perf.history.window runs are reported as regressions.
+public class PageTelemetry {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("perf.telemetry", "true"));
+    private static final Path REPORT_FILE = Paths.get(System.getProperty("webdriver.metrics.dir", "build/reports/webdriver-commands"), "telemetry.json");
+    private static final Path HISTORY_FILE = Paths.get(System.getProperty("perf.history", "perf-history.jsonl"));
+    private static final int HISTORY_WINDOW = Integer.getInteger("perf.history.window", 10);
+    private static final double REGRESSION_THRESHOLD = Double.parseDouble(System.getProperty("perf.regression.threshold", "0.25"));
+    private static final String BUILD = System.getProperty("perf.build", Instant.now().toString());
+    private static final Json JSON = new Json();
+
+    // Cumulative CDP counters (seconds) reported as the milliseconds spent during a sample
+    private static final List<String> CDP_DURATIONS = List.of("TaskDuration", "ScriptDuration", "LayoutDuration", "RecalcStyleDuration");
+    private static final List<String> CDP_GAUGES = List.of("JSHeapUsedSize", "Nodes", "JSEventListeners");
+
+    // Runs before the page's own scripts on every new document (or on first use where CDP is unavailable)
+    private static final String COLLECTOR_SCRIPT =
+            "(function() {" +
+            "  if (window.__telemetry) { return; }" +
+            "  var t = window.__telemetry = {longTasks: [], tables: {}, late: !!document.body};" +
+            "  if (performance.setResourceTimingBufferSize) { performance.setResourceTimingBufferSize(2000); }" +
+            "  try {" +
+            "    new PerformanceObserver(function(list) {" +
+            "      list.getEntries().forEach(function(e) { t.longTasks.push([e.startTime, e.duration]); });" +
+            "    }).observe({type: 'longtask', buffered: true});" +
+            "  } catch (e) {}" +
+            "  function scan() {" +
+            "    Array.prototype.forEach.call(document.querySelectorAll('table[id]'), function(table) {" +
+            "      var body = table.tBodies[0];" +
+            "      if (!(table.id in t.tables) && body && body.rows.length > 0 && !body.querySelector('.dataTables_empty')) {" +
+            "        t.tables[table.id] = performance.now();" +
+            "      }" +
+            "    });" +
+            "  }" +
+            "  function observe() {" +
+            "    scan();" +
+            "    new MutationObserver(scan).observe(document.documentElement, {childList: true, subtree: true});" +
+            "  }" +
+            "  if (document.documentElement) { observe(); } else { document.addEventListener('readystatechange', observe, {once: true}); }" +
+            "})();";
+
+    // arguments[0]: start of the sample on the page clock (0 = whole document). Returns the page-side figures.
+    private static final String COLLECT_SCRIPT =
+            "var since = arguments[0], t = window.__telemetry;" +
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "var resources = performance.getEntriesByType('resource').filter(function(r) { return r.startTime >= since; });" +
+            "var transfer = 0, slowest = null;" +
+            "resources.forEach(function(r) {" +
+            "  transfer += r.transferSize || 0;" +
+            "  if (!slowest || r.duration > slowest.duration) { slowest = r; }" +
+            "});" +
+            "var tasks = t.longTasks.filter(function(l) { return l[0] >= since; });" +
+            "var result = {now: performance.now(), tables: t.tables, late: t.late," +
+            "  resourceCount: resources.length, resourceTransferBytes: transfer," +
+            "  slowestResourceMs: slowest ? slowest.duration : 0, slowestResource: slowest ? slowest.name : null," +
+            "  longTaskCount: tasks.length," +
+            "  longTaskMs: tasks.reduce(function(sum, l) { return sum + l[1]; }, 0)," +
+            "  maxLongTaskMs: tasks.reduce(function(max, l) { return Math.max(max, l[1]); }, 0)};" +
+            "if (nav && since === 0) {" +
+            "  result.navigation = {ttfbMs: nav.responseStart - nav.requestStart, responseEndMs: nav.responseEnd," +
+            "    domInteractiveMs: nav.domInteractive, domContentLoadedMs: nav.domContentLoadedEventEnd," +
+            "    loadMs: nav.loadEventEnd, documentTransferBytes: nav.transferSize || 0};" +
+            "}" +
+            "return result;";
+
+    private static final Queue<Sample> RUN = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<List<Sample>> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<String> CURRENT_TEST_NAME = new ThreadLocal<>();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(PageTelemetry::write, "page-telemetry-report"));
+        }
+    }
+
+    private final WebDriver driver;
+    private final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+
+    public PageTelemetry(WebDriver driver) {
+        // Telemetry round trips bypass CommandMetrics, so command budgets stay the same with it on
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        this.driver = driver;
+    }
+
+    // Registers the collector for every document the session opens; call before the first navigation
+    static void install(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasCdp)) {
+            return;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        try {
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+            cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", COLLECTOR_SCRIPT));
+        } catch (RuntimeException e) {
+            // The collector is then injected on first use
+            System.err.println("perf.telemetry: could not register the page collector: " + e.getMessage());
+        }
+    }
+
+    // Starts collecting a sample list for the test on the calling thread
+    public static void startTest(String testName) {
+        CURRENT_TEST.set(Collections.synchronizedList(new ArrayList<>()));
+        CURRENT_TEST_NAME.set(testName);
+    }
+
+    public static List<Sample> finishTest() {
+        List<Sample> samples = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        CURRENT_TEST_NAME.remove();
+        return samples == null ? List.of() : new ArrayList<>(samples);
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // Samples recorded through this instance, oldest first
+    public List<Sample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    // Sample of the current document since navigation start; `tableId` makes its duration the moment that
+    // table first had rows, otherwise DOMContentLoaded (or the load event, once it fired). Returns null, and
+    // records nothing, when the table never had rows (empty tenant, stub.seed=0): there is no render to time.
+    public Sample navigation(String name, String tableId) {
+        if (!ENABLED) {
+            return null;
+        }
+        Map<String, Double> metrics = new TreeMap<>();
+        Map<?, ?> page = collect(0);
+        Map<?, ?> navigation = (Map<?, ?>) page.get("navigation");
+        double duration = 0;
+        if (navigation != null) {
+            navigation.forEach((key, value) -> metrics.put((String) key, number(value)));
+            duration = metrics.get("loadMs") > 0 ? metrics.get("loadMs") : metrics.get("domContentLoadedMs");
+        }
+        if (tableId != null) {
+            Object tables = page.get("tables");
+            Object renderedAt = tables instanceof Map ? ((Map<?, ?>) tables).get(tableId) : null;
+            if (renderedAt == null) {
+                return null;
+            }
+            // Without the early collector a table that already had rows is only noticed on first use
+            duration = number(renderedAt);
+            metrics.put("tableRenderMs", duration);
+        }
+        metrics.put("collectorLate", Boolean.TRUE.equals(page.get("late")) ? 1.0 : 0.0);
+        pageMetrics(page, metrics);
+        cdpMetrics().forEach((key, value) -> metrics.put("cdp." + key, value));
+        return record(name, duration, metrics);
+    }
+
+    // Sample of a user flow on the current document, e.g. a modal cycle; ended with Span.end()
+    public Span begin(String name) {
+        if (!ENABLED) {
+            return new Span(this, name, 0, 0, Map.of());
+        }
+        double pageStart = number(collect(0).get("now"));
+        return new Span(this, name, System.nanoTime(), pageStart, cdpMetrics());
+    }
+
+    public static final class Span {
+        private final PageTelemetry telemetry;
+        private final String name;
+        private final long startNanos;
+        private final double pageStart;
+        private final Map<String, Double> cdpStart;
+
+        private Span(PageTelemetry telemetry, String name, long startNanos, double pageStart, Map<String, Double> cdpStart) {
+            this.telemetry = telemetry;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.pageStart = pageStart;
+            this.cdpStart = cdpStart;
+        }
+
+        // Returns null when telemetry is off
+        public Sample end() {
+            if (!ENABLED) {
+                return null;
+            }
+            double duration = (System.nanoTime() - startNanos) / 1_000_000.0;
+            Map<String, Double> metrics = new TreeMap<>();
+            telemetry.pageMetrics(telemetry.collect(pageStart), metrics);
+            Map<String, Double> cdpEnd = telemetry.cdpMetrics();
+            cdpEnd.forEach((key, value) -> metrics.put("cdp." + key,
+                    key.endsWith("DurationMs") ? value - cdpStart.getOrDefault(key, 0.0) : value));
+            return telemetry.record(name, duration, metrics);
+        }
+    }
+
+    private Map<?, ?> collect(double since) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object result = js.executeScript("if (!window.__telemetry) { " + COLLECTOR_SCRIPT + " } " + COLLECT_SCRIPT, since);
+        return result instanceof Map ? (Map<?, ?>) result : Map.of();
+    }
+
+    private void pageMetrics(Map<?, ?> page, Map<String, Double> metrics) {
+        for (String key : List.of("resourceCount", "resourceTransferBytes", "slowestResourceMs",
+                "longTaskCount", "longTaskMs", "maxLongTaskMs")) {
+            metrics.put(key, number(page.get(key)));
+        }
+    }
+
+    // Durations as milliseconds, gauges as reported; empty without CDP
+    private Map<String, Double> cdpMetrics() {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        if (!(driver instanceof HasCdp)) {
+            return metrics;
+        }
+        Object reported = ((HasCdp) driver).executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+        if (!(reported instanceof List)) {
+            return metrics;
+        }
+        for (Object entry : (List<?>) reported) {
+            Map<?, ?> metric = (Map<?, ?>) entry;
+            String name = String.valueOf(metric.get("name"));
+            if (CDP_DURATIONS.contains(name)) {
+                metrics.put(name + "Ms", number(metric.get("value")) * 1000);
+            } else if (CDP_GAUGES.contains(name)) {
+                metrics.put(name, number(metric.get("value")));
+            }
+        }
+        return metrics;
+    }
+
+    private Sample record(String name, double durationMillis, Map<String, Double> metrics) {
+        metrics.put("durationMs", durationMillis);
+        Sample sample = new Sample(name, CURRENT_TEST_NAME.get(), Instant.now(), metrics);
+        RUN.add(sample);
+        samples.add(sample);
+        List<Sample> test = CURRENT_TEST.get();
+        if (test != null) {
+            test.add(sample);
+        }
+        return sample;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    public static final class Sample {
+        private final String name;
+        private final String test;
+        private final Instant recordedAt;
+        private final Map<String, Double> metrics;
+
+        Sample(String name, String test, Instant recordedAt, Map<String, Double> metrics) {
+            this.name = name;
+            this.test = test;
+            this.recordedAt = recordedAt;
+            this.metrics = Collections.unmodifiableMap(metrics);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getDurationMillis() {
+            return metrics.get("durationMs");
+        }
+
+        // e.g. "durationMs", "tableRenderMs", "ttfbMs", "resourceTransferBytes", "longTaskMs", "cdp.ScriptDurationMs"
+        public Double getMetric(String metric) {
+            return metrics.get(metric);
+        }
+
+        public Map<String, Double> getMetrics() {
+            return metrics;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", name);
+            json.put("test", test);
+            json.put("recordedAt", recordedAt.toString());
+            json.put("metrics", metrics);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + Math.round(getDurationMillis()) + " ms";
+        }
+    }
+
+    // Run summary per sample name: count and duration percentiles
+    static Map<String, Map<String, Object>> summarize(List<Sample> samples) {
+        Map<String, List<Double>> durations = new TreeMap<>();
+        for (Sample sample : samples) {
+            durations.computeIfAbsent(sample.getName(), key -> new ArrayList<>()).add(sample.getDurationMillis());
+        }
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        durations.forEach((name, values) -> {
+            Collections.sort(values);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", values.size());
+            stats.put("p50", round(percentile(values, 0.5)));
+            stats.put("p95", round(percentile(values, 0.95)));
+            stats.put("max", round(values.get(values.size() - 1)));
+            summary.put(name, stats);
+        });
+        return summary;
+    }
+
+    // Sample names whose p50 is more than the threshold above the median p50 of the previous runs
+    static List<String> regressions(Map<String, Map<String, Object>> summary, List<Map<String, Object>> history) {
+        List<String> regressions = new ArrayList<>();
+        List<Map<String, Object>> window = history.subList(Math.max(0, history.size() - HISTORY_WINDOW), history.size());
+        summary.forEach((name, stats) -> {
+            List<Double> previous = new ArrayList<>();
+            for (Map<String, Object> run : window) {
+                Object samples = run.get("samples");
+                Object entry = samples instanceof Map ? ((Map<?, ?>) samples).get(name) : null;
+                if (entry instanceof Map && ((Map<?, ?>) entry).get("p50") instanceof Number) {
+                    previous.add(((Number) ((Map<?, ?>) entry).get("p50")).doubleValue());
+                }
+            }
+            if (previous.isEmpty()) {
+                return;
+            }
+            Collections.sort(previous);
+            double baseline = percentile(previous, 0.5);
+            double current = ((Number) stats.get("p50")).doubleValue();
+            if (current > baseline * (1 + REGRESSION_THRESHOLD)) {
+                regressions.add(name + ": p50 " + Math.round(current) + " ms, median of the last " + previous.size()
+                        + " runs " + Math.round(baseline) + " ms");
+            }
+        });
+        return regressions;
+    }
+
+    private static double percentile(List<Double> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+
+    private static void write() {
+        List<Sample> samples = new ArrayList<>(RUN);
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> summary = summarize(samples);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("build", BUILD);
+        run.put("finishedAt", Instant.now().toString());
+        run.put("samples", summary);
+        try {
+            List<String> regressions = appendHistory(run);
+            regressions.forEach(regression -> System.out.println("[perf] regression: " + regression));
+
+            Map<String, Object> report = new LinkedHashMap<>(run);
+            report.put("regressions", regressions);
+            List<Map<String, Object>> raw = new ArrayList<>();
+            samples.forEach(sample -> raw.add(sample.toJson()));
+            report.put("raw", raw);
+            Files.createDirectories(REPORT_FILE.getParent());
+            Files.write(REPORT_FILE, JSON.toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not write page telemetry: " + e.getMessage());
+        }
+    }
+
+    // Reads the earlier runs and appends this one under a file lock, so parallel test JVMs do not interleave
+    private static List<String> appendHistory(Map<String, Object> run) throws IOException {
+        Path parent = HISTORY_FILE.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(HISTORY_FILE, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            List<Map<String, Object>> history = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(HISTORY_FILE, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        history.add(JSON.toType(line, Json.MAP_TYPE));
+                    }
+                }
+            }
+            @SuppressWarnings("unchecked")
+            List<String> regressions = regressions((Map<String, Map<String, Object>>) run.get("samples"), history);
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput out = JSON.newOutput(line)) {
+                out.setPrettyPrint(false).write(run);
+            }
+            line.append('\n');
+            channel.position(channel.size());
+            channel.write(ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8)));
+            return regressions;
+        }
+    }
+}
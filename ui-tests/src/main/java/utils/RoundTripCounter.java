@@ -0,0 +1,33 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts WebDriver commands sent through a decorated driver. Calls that only hand out local
+// helper objects (manage(), navigate(), switchTo(), ...) are not round trips and are skipped.
+public class RoundTripCounter implements WebDriverListener {
+    private final AtomicLong count = new AtomicLong();
+
+    public WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(this).decorate(driver);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (CommandMetrics.isRoundTrip(method)) {
+            count.incrementAndGet();
+        }
+    }
+}
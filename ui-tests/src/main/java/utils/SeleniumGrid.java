@@ -0,0 +1,150 @@
+package utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Browser sessions on a Selenium Grid (driver.remote, e.g. http://localhost:4444) instead of in this JVM.
+// Before asking the grid for a session, a worker waits until /status reports a free slot for its browser
+// that no other worker of this JVM is already starting a session on. Surplus workers queue here
+// (back-pressure) instead of in the grid's new-session queue, where requests time out, and the wait and
+// the grid's session start-up time end up in startup.json.
+public final class SeleniumGrid {
+    private static final String REMOTE = System.getProperty("driver.remote", "").trim();
+    private static final Duration SLOT_TIMEOUT = Duration.ofSeconds(Long.getLong("driver.remote.slotTimeout", 300));
+    private static final long POLL_MILLIS = Long.getLong("driver.remote.pollMillis", 500);
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    // Sessions requested by this JVM that /status may not show as taken yet, per browser
+    private static final Map<String, Integer> STARTING = new HashMap<>();
+
+    private SeleniumGrid() {
+    }
+
+    public static boolean isEnabled() {
+        return !REMOTE.isEmpty();
+    }
+
+    // Slots of the browsers on nodes that are up; a grid that cannot be reached has none
+    public static int totalSlots(List<String> browsers) {
+        try {
+            int total = 0;
+            for (String browser : browsers) {
+                total += status().getOrDefault(browser, new int[2])[1];
+            }
+            return total;
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return 0;
+        }
+    }
+
+    static WebDriver newSession(String browser, Capabilities options) {
+        long requested = System.nanoTime();
+        claimSlot(browser);
+        long claimed = System.nanoTime();
+        try {
+            WebDriver driver = new RemoteWebDriver(url(), options);
+            StartupMetrics.recordGridSession(browser, claimed - requested, System.nanoTime() - claimed);
+            // Adds CDP where the node's browser offers it, for NetworkShaping and PageTelemetry
+            return new Augmenter().augment(driver);
+        } finally {
+            synchronized (STARTING) {
+                STARTING.merge(browser, -1, Integer::sum);
+            }
+        }
+    }
+
+    private static void claimSlot(String browser) {
+        long deadline = System.nanoTime() + SLOT_TIMEOUT.toNanos();
+        while (true) {
+            // One status read per claim, so two workers never count the same free slot
+            synchronized (STARTING) {
+                int[] slots = status().get(browser);
+                if (slots == null) {
+                    throw new IllegalStateException("Selenium Grid at " + REMOTE + " has no " + browser + " slots");
+                }
+                if (slots[0] - STARTING.getOrDefault(browser, 0) > 0) {
+                    STARTING.merge(browser, 1, Integer::sum);
+                    return;
+                }
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("No " + browser + " slot became free on " + REMOTE + " within " + SLOT_TIMEOUT
+                        + " (driver.remote.slotTimeout)");
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a " + browser + " slot", e);
+            }
+        }
+    }
+
+    // Free and total slots per browser name, from the grid's /status
+    static Map<String, int[]> status() {
+        String body;
+        try {
+            HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(URI.create(REMOTE.replaceAll("/+$", "") + "/status"))
+                    .timeout(Duration.ofSeconds(10)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Selenium Grid status at " + REMOTE + " returned " + response.statusCode());
+            }
+            body = response.body();
+        } catch (IOException e) {
+            throw new IllegalStateException("Selenium Grid at " + REMOTE + " is not reachable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading Selenium Grid status", e);
+        }
+        Map<String, int[]> slots = new HashMap<>();
+        Map<?, ?> value = (Map<?, ?>) ((Map<?, ?>) new Json().toType(body, Json.MAP_TYPE)).get("value");
+        Object nodes = value == null ? null : value.get("nodes");
+        if (!(nodes instanceof List)) {
+            return slots;
+        }
+        for (Object node : (List<?>) nodes) {
+            Map<?, ?> nodeStatus = (Map<?, ?>) node;
+            if (!"UP".equals(nodeStatus.get("availability")) || !(nodeStatus.get("slots") instanceof List)) {
+                continue;
+            }
+            for (Object slot : (List<?>) nodeStatus.get("slots")) {
+                Map<?, ?> slotStatus = (Map<?, ?>) slot;
+                Object stereotype = slotStatus.get("stereotype");
+                Object browserName = stereotype instanceof Map ? ((Map<?, ?>) stereotype).get("browserName") : null;
+                if (browserName == null) {
+                    continue;
+                }
+                int[] counts = slots.computeIfAbsent(browserName.toString().toLowerCase(), key -> new int[2]);
+                counts[1]++;
+                if (slotStatus.get("session") == null) {
+                    counts[0]++;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static URL url() {
+        try {
+            return new URL(REMOTE);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("driver.remote is not a URL: " + REMOTE, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Map;
+import java.util.Set;
+
+// Returns a reused browser session to a blank state between tests, in a handful of round trips instead
+// of a browser launch: no dialogs, a single window, no cookies or web storage, about:blank loaded.
+// reset() reports false when the session could not be brought back to that state, so it gets recycled.
+final class SessionReset {
+    // Runs on the page the test left behind, before navigating away: web storage is per origin, and a modal
+    // still showing there means the page was left mid-interaction. Storage access throws on opaque origins
+    // such as about:blank, where there is nothing to clear.
+    private static final String CLEAR_AND_CHECK_SCRIPT =
+            "var cleared = true;" +
+            "try { window.localStorage.clear(); cleared = window.localStorage.length === 0; } catch (e) {}" +
+            "try { window.sessionStorage.clear(); cleared = cleared && window.sessionStorage.length === 0; } catch (e) {}" +
+            "return cleared && !document.querySelector('.modal.show, .modal-backdrop');";
+
+    private SessionReset() {
+    }
+
+    static boolean reset(WebDriver driver) {
+        // Reset round trips bypass CommandMetrics, like telemetry, so they do not count against the test
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        try {
+            dismissAlert(driver);
+            if (!closeExtraWindows(driver)) {
+                return false;
+            }
+            if (!Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(CLEAR_AND_CHECK_SCRIPT))) {
+                return false;
+            }
+            if (driver instanceof HasCdp) {
+                // Every domain's cookies, not just the current document's
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            driver.get("about:blank");
+            return "about:blank".equals(driver.getCurrentUrl())
+                    && driver.getWindowHandles().size() == 1
+                    && driver.manage().getCookies().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void dismissAlert(WebDriver driver) {
+        try {
+            driver.switchTo().alert().dismiss();
+        } catch (NoAlertPresentException e) {
+            // Nothing open
+        }
+    }
+
+    // Closes windows and tabs the test opened and switches back to the one that is left
+    private static boolean closeExtraWindows(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        if (handles.isEmpty()) {
+            return false;
+        }
+        String keep;
+        try {
+            keep = driver.getWindowHandle();
+        } catch (WebDriverException e) {
+            // The test closed the window the driver was pointing at
+            keep = handles.iterator().next();
+        }
+        for (String handle : handles) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(keep);
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cold-start timings split into driver binary resolution, browser process spawn, first navigation
+// and the time tests spent waiting in DriverManager.getDriver(), plus how often reused sessions were
+// reset and recycled between tests. With a Selenium Grid, also how long workers waited for a free slot and
+// how long the grid took to start each session (its new-session queue included). Written to startup.json in webdriver.metrics.dir at JVM exit.
+public final class StartupMetrics {
+    private static final Path REPORT_FILE = Paths.get(System.getProperty("webdriver.metrics.dir", "build/reports/webdriver-commands"), "startup.json");
+
+    private static final Map<String, Map<String, Object>> RESOLUTIONS = new LinkedHashMap<>();
+    private static final Queue<Session> SESSIONS = new ConcurrentLinkedQueue<>();
+    private static final LongAdder LEASES = new LongAdder();
+    private static final LongAdder LEASE_WAIT_NANOS = new LongAdder();
+    private static final AtomicLong MAX_LEASE_WAIT_NANOS = new AtomicLong();
+    private static final AtomicLong FIRST_LEASE_MILLIS = new AtomicLong(-1);
+    private static final LongAdder RESETS = new LongAdder();
+    private static final LongAdder RESET_NANOS = new LongAdder();
+    private static final AtomicLong MAX_RESET_NANOS = new AtomicLong();
+    private static final Map<String, LongAdder> RECYCLED = new ConcurrentHashMap<>();
+    // Per browser: sessions, total and max slot wait, total and max session start (nanos)
+    private static final Map<String, long[]> GRID = new TreeMap<>();
+    private static volatile int gridSlots = -1;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(StartupMetrics::write, "webdriver-startup-report"));
+    }
+
+    private StartupMetrics() {
+    }
+
+    static synchronized void recordResolution(String browser, String source, long nanos) {
+        Map<String, Object> resolution = new LinkedHashMap<>();
+        resolution.put("source", source);
+        resolution.put("ms", millis(nanos));
+        RESOLUTIONS.put(browser, resolution);
+    }
+
+    // Returned listener records the session's first navigation once the driver is decorated with it
+    static Session recordSpawn(String browser, boolean prewarmed, long nanos) {
+        Session session = new Session(browser, prewarmed, nanos);
+        SESSIONS.add(session);
+        return session;
+    }
+
+    static void recordLease(long waitNanos) {
+        LEASES.increment();
+        LEASE_WAIT_NANOS.add(waitNanos);
+        MAX_LEASE_WAIT_NANOS.accumulateAndGet(waitNanos, Math::max);
+        // Wall time from JVM start until the first test had its browser
+        FIRST_LEASE_MILLIS.compareAndSet(-1, ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    static void recordReset(long nanos) {
+        RESETS.increment();
+        RESET_NANOS.add(nanos);
+        MAX_RESET_NANOS.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Reason is "failure", "maxUses", "reset" or "perTest"
+    static void recordRecycle(String reason) {
+        RECYCLED.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    static void recordGridSlots(int slots) {
+        gridSlots = slots;
+    }
+
+    static void recordGridSession(String browser, long slotWaitNanos, long startNanos) {
+        synchronized (GRID) {
+            long[] stats = GRID.computeIfAbsent(browser, key -> new long[5]);
+            stats[0]++;
+            stats[1] += slotWaitNanos;
+            stats[2] = Math.max(stats[2], slotWaitNanos);
+            stats[3] += startNanos;
+            stats[4] = Math.max(stats[4], startNanos);
+        }
+    }
+
+    static synchronized Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("resolution", new LinkedHashMap<>(RESOLUTIONS));
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        SESSIONS.forEach(session -> sessions.add(session.toJson()));
+        json.put("sessions", sessions);
+        Map<String, Object> leases = new LinkedHashMap<>();
+        leases.put("count", LEASES.sum());
+        leases.put("totalWaitMs", millis(LEASE_WAIT_NANOS.sum()));
+        leases.put("maxWaitMs", millis(MAX_LEASE_WAIT_NANOS.get()));
+        leases.put("firstLeaseAfterJvmStartMs", FIRST_LEASE_MILLIS.get());
+        json.put("leases", leases);
+        Map<String, Object> resets = new LinkedHashMap<>();
+        resets.put("count", RESETS.sum());
+        resets.put("totalMs", millis(RESET_NANOS.sum()));
+        resets.put("maxMs", millis(MAX_RESET_NANOS.get()));
+        json.put("resets", resets);
+        Map<String, Object> recycled = new TreeMap<>();
+        RECYCLED.forEach((reason, count) -> recycled.put(reason, count.sum()));
+        json.put("recycled", recycled);
+        if (gridSlots >= 0) {
+            Map<String, Object> grid = new LinkedHashMap<>();
+            grid.put("slots", gridSlots);
+            synchronized (GRID) {
+                GRID.forEach((browser, stats) -> {
+                    Map<String, Object> remote = new LinkedHashMap<>();
+                    remote.put("sessions", stats[0]);
+                    remote.put("slotWaitTotalMs", millis(stats[1]));
+                    remote.put("slotWaitMaxMs", millis(stats[2]));
+                    remote.put("sessionStartAvgMs", millis(stats[3] / Math.max(1, stats[0])));
+                    remote.put("sessionStartMaxMs", millis(stats[4]));
+                    grid.put(browser, remote);
+                });
+            }
+            json.put("grid", grid);
+        }
+        return json;
+    }
+
+    private static void write() {
+        if (SESSIONS.isEmpty() && LEASES.sum() == 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(REPORT_FILE.getParent());
+            Files.write(REPORT_FILE, new Json().toJson(toJson()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not write " + REPORT_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    static final class Session implements WebDriverListener {
+        private final String browser;
+        private final boolean prewarmed;
+        private final long spawnNanos;
+        private volatile long navigationStarted;
+        private volatile long firstNavigationNanos = -1;
+
+        private Session(String browser, boolean prewarmed, long spawnNanos) {
+            this.browser = browser;
+            this.prewarmed = prewarmed;
+            this.spawnNanos = spawnNanos;
+        }
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            navigationStarted = System.nanoTime();
+        }
+
+        @Override
+        public void afterGet(WebDriver driver, String url) {
+            if (firstNavigationNanos < 0) {
+                firstNavigationNanos = System.nanoTime() - navigationStarted;
+            }
+        }
+
+        @Override
+        public void beforeTo(WebDriver.Navigation navigation, String url) {
+            navigationStarted = System.nanoTime();
+        }
+
+        @Override
+        public void afterTo(WebDriver.Navigation navigation, String url) {
+            if (firstNavigationNanos < 0) {
+                firstNavigationNanos = System.nanoTime() - navigationStarted;
+            }
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("browser", browser);
+            json.put("prewarmed", prewarmed);
+            json.put("spawnMs", millis(spawnNanos));
+            json.put("firstNavigationMs", firstNavigationNanos < 0 ? null : millis(firstNavigationNanos));
+            return json;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// WebDriverWait that records every until() as a Flight Recorder event (FlightEvents.WaitEvent) with the
+// condition, the page-object action it ran in and whether it was met before the timeout
+public class TimedWait extends WebDriverWait {
+
+    public TimedWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> condition) {
+        FlightEvents.WaitEvent event = new FlightEvents.WaitEvent();
+        event.begin();
+        boolean satisfied = false;
+        try {
+            V value = super.until(condition);
+            satisfied = true;
+            return value;
+        } finally {
+            if (event.shouldCommit()) {
+                event.test = FlightEvents.currentTest();
+                event.action = PageAction.outermost();
+                event.condition = String.valueOf(condition);
+                event.satisfied = satisfied;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import utils.DriverManager;
+
+// Ends each test's use of the worker's browser session: reset for the next test, or relaunched after a
+// failure (see DriverManager.finishTest and driver.session). Registered for every test through extension
+// auto-detection; it runs after the tests' own @AfterEach methods, which may still use the browser.
+public class BrowserSessionExtension implements AfterEachCallback, AfterAllCallback {
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        DriverManager.finishTest(context.getExecutionException().isPresent(),
+                context.getExecutionMode() == ExecutionMode.CONCURRENT);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        DriverManager.finishClass();
+    }
+}
@@ -0,0 +1,27 @@
+package tests;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Upper bound for one page-object action, checked by CommandMetricsExtension after each test, e.g.
+//     @CommandBudget(action = "DashboardPage.isEmployeeInTable", maxCommands = 4)
+// Applies to every call of the action in the test; -1 leaves a limit unchecked.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Repeatable(CommandBudget.List.class)
+public @interface CommandBudget {
+    String action();
+
+    long maxCommands() default -1;
+
+    long maxMillis() default -1;
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.TYPE})
+    @interface List {
+        CommandBudget[] value();
+    }
+}
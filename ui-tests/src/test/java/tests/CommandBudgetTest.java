@@ -0,0 +1,100 @@
+package tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import pages.DashboardPage;
+import utils.CommandMetrics;
+import utils.CommandStats;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Runs the table lookups against a scripted driver and checks EmployeeManagementTest's @CommandBudget
+// limits against the commands CommandMetrics recorded, so a budget cannot drift from the real cost
+public class CommandBudgetTest {
+
+    private static List<String> row(String firstName, String lastName) {
+        return List.of("a1", firstName, lastName, "0", "52000.00", "2000.00", "38.46", "1961.54", "");
+    }
+
+    // Answers what a loaded dashboard would: the table is displayed, the page settled, one employee listed
+    private static WebDriver scriptedDriver() {
+        WebElement table = (WebElement) Proxy.newProxyInstance(CommandBudgetTest.class.getClassLoader(),
+                new Class<?>[]{WebElement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isDisplayed":
+                            return true;
+                        case "toString":
+                            return "[scripted driver -> id: employeesTable]";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        return (WebDriver) Proxy.newProxyInstance(CommandBudgetTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElement":
+                            return table;
+                        case "executeAsyncScript":
+                            return Map.of("ready", true, "elapsed", 1.0, "pending", 0L);
+                        case "executeScript":
+                            // Table snapshot; page telemetry reads nothing useful from this page
+                            return ((String) args[0]).contains(" tbody tr") ? List.of(row("John", "Doe")) : null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "scripted driver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    // Commands of the first call on a fresh page, which also locates the table
+    private static long commands(String action, Consumer<DashboardPage> lookup) {
+        DashboardPage page = new DashboardPage(CommandMetrics.decorate(scriptedDriver()));
+        // Replaces the report CommandMetricsExtension started, so only this lookup is counted
+        CommandMetrics.startTest(CommandBudgetTest.class.getName() + "." + action);
+        lookup.accept(page);
+        CommandStats stats = CommandMetrics.finishTest().action(action);
+        Assertions.assertNotNull(stats, action + " was not recorded");
+        return stats.getMaxCommands();
+    }
+
+    private static long budget(String action) {
+        return AnnotationSupport.findRepeatableAnnotations(EmployeeManagementTest.class, CommandBudget.class).stream()
+                .filter(budget -> budget.action().equals(action))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No budget for " + action))
+                .maxCommands();
+    }
+
+    @Test
+    @DisplayName("isEmployeeInTable budget matches the commands it sends")
+    void isEmployeeInTableBudget() {
+        long sent = commands("DashboardPage.isEmployeeInTable", page ->
+                Assertions.assertTrue(page.isEmployeeInTable("John", "Doe")));
+
+        Assertions.assertEquals(budget("DashboardPage.isEmployeeInTable"), sent);
+    }
+
+    @Test
+    @DisplayName("getEmployeeCount budget matches the commands it sends")
+    void getEmployeeCountBudget() {
+        long sent = commands("DashboardPage.getEmployeeCount", page ->
+                Assertions.assertEquals(1, page.getEmployeeCount()));
+
+        Assertions.assertEquals(budget("DashboardPage.getEmployeeCount"), sent);
+    }
+}
@@ -0,0 +1,52 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import utils.CommandMetrics;
+import utils.CommandStats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects a WebDriver command report per test (build/reports/webdriver-commands/<package.Class>.<method>.json)
+// and fails the test when one of its @CommandBudget limits was exceeded. Registered for every test
+// through extension auto-detection (see junit-platform.properties), since the reports also feed
+// change-impact test selection.
+public class CommandMetricsExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CommandMetrics.startTest(context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CommandMetrics.Report report = CommandMetrics.finishTest();
+        if (report == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        List<CommandBudget> budgets = new ArrayList<>(
+                AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestClass(), CommandBudget.class));
+        budgets.addAll(AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestMethod(), CommandBudget.class));
+
+        List<String> exceeded = new ArrayList<>();
+        for (CommandBudget budget : budgets) {
+            CommandStats stats = report.action(budget.action());
+            if (stats == null) {
+                continue;
+            }
+            if (budget.maxCommands() >= 0 && stats.getMaxCommands() > budget.maxCommands()) {
+                exceeded.add(budget.action() + " sent " + stats.getMaxCommands() + " commands (budget " + budget.maxCommands() + ")");
+            }
+            if (budget.maxMillis() >= 0 && stats.getMaxMillis() > budget.maxMillis()) {
+                exceeded.add(budget.action() + " took " + Math.round(stats.getMaxMillis()) + " ms (budget " + budget.maxMillis() + " ms)");
+            }
+        }
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("Command budget exceeded in " + report.getName() + ":\n  " + String.join("\n  ", exceeded));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package tests;
+
+import api.EmployeeFixtures;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openqa.selenium.WebDriver;
+import pages.DashboardPage;
+import utils.AuthSession;
+import utils.DriverManager;
+import utils.PageTelemetry;
+
+// Dashboard load budget, kept to the stub server: against the live deployment the time to a populated table
+// depends on its network and tenant size more than on the page. Seeds its own employee, so the table has
+// rows to time even with stub.seed=0.
+@EnabledIfSystemProperty(named = "stub.server", matches = "true")
+// Employees table populated within 800 ms of navigation start
+@PerformanceBudget(sample = "DashboardPage.load", max = 800)
+public class DashboardLoadPerformanceTest {
+    private WebDriver driver;
+    private EmployeeFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        Assumptions.assumeTrue(PageTelemetry.isEnabled(), "perf.telemetry=false");
+        driver = DriverManager.getDriver();
+        fixtures = new EmployeeFixtures();
+        fixtures.seed(0);
+    }
+
+    @Test
+    @DisplayName("Dashboard table is populated within the load budget")
+    void dashboardLoadsWithinBudget() {
+        AuthSession.openDashboard(driver);
+        DashboardPage dashboardPage = new DashboardPage(driver);
+        dashboardPage.getTableSnapshot();
+
+        // Without a sample PageTelemetryExtension would have no budget to check
+        Assertions.assertTrue(dashboardPage.getPerformanceSamples().stream()
+                        .anyMatch(sample -> sample.getName().equals("DashboardPage.load")),
+                "No DashboardPage.load sample was recorded");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (fixtures != null) {
+            fixtures.close();
+        }
+    }
+}
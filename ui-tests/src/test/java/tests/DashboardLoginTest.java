@@ -1,6 +1,8 @@
+package tests;
+
 import org.junit.jupiter.api.*;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
+import utils.DriverManager;
 
 public class DashboardLoginTest {
 
@@ -8,7 +10,8 @@ public class DashboardLoginTest {
 
     @BeforeEach
     void setUp() {
-        driver = new ChromeDriver();
+        // Sesion reutilizada del pool; BrowserSessionExtension la limpia (cookies, storage, ventanas) entre tests
+        driver = DriverManager.getDriver();
     }
 
     @Test
@@ -46,11 +49,4 @@ public class DashboardLoginTest {
         Assertions.assertTrue(driver.getPageSource().contains("HTTP ERROR 405") ||
                 driver.getPageSource().contains("Esta página no funciona"));
     }
-
-    @AfterEach
-    void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package tests;
+
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import utils.DriverManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Starts browser sessions as soon as the JUnit launcher begins discovering test classes, so the first UI
+// test finds a warm browser (driver.prewarm=0 turns this off). Discovery starts after every
+// LauncherSessionListener has run, so with stub.server=true the sessions are set up for the stub's base.url.
+public class DriverPrewarmListener implements LauncherDiscoveryListener {
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Override
+    public void launcherDiscoveryStarted(LauncherDiscoveryRequest request) {
+        if (started.compareAndSet(false, true)) {
+            DriverManager.prewarm();
+        }
+    }
+}
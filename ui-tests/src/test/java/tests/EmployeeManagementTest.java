@@ -1,27 +1,44 @@
 package tests;
 
+import api.Employee;
+import api.EmployeeFixtures;
+import benefits.BenefitsEngine;
+import benefits.Verification;
+import namespace.TestNamespace;
 import org.junit.jupiter.api.*;
-import pages.LoginPage;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import pages.BulkResult;
 import pages.DashboardPage;
+import pages.TableSnapshot;
+import utils.AuthSession;
 import utils.DriverManager;
 import org.openqa.selenium.WebDriver;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+// Table lookups cost: locating the table (first use only), its visibility, readiness script, snapshot script;
+// CommandBudgetTest checks these against the commands a lookup actually sends
+@CommandBudget(action = "DashboardPage.isEmployeeInTable", maxCommands = 4)
+@CommandBudget(action = "DashboardPage.getEmployeeCount", maxCommands = 4)
+// Every test names its employees with TestNamespace and only counts its own rows, so methods can run in parallel
+@Execution(ExecutionMode.CONCURRENT)
 public class EmployeeManagementTest {
     private WebDriver driver;
-    private LoginPage loginPage;
     private DashboardPage dashboardPage;
+    private EmployeeFixtures fixtures;
 
     @BeforeEach
     void setUp() {
         driver = DriverManager.getDriver();
-        loginPage = new LoginPage(driver);
+        fixtures = new EmployeeFixtures();
+
+        // Reuse this worker's HTTP login instead of going through the login form
+        AuthSession.openDashboard(driver);
         dashboardPage = new DashboardPage(driver);
         
-        // Login before each test
-        String username = System.getProperty("test.username", "TestUser773");
-        String password = System.getProperty("test.password", "6q0]l$BKOUb!");
-        dashboardPage = loginPage.login(username, password);
-        
         // Verify we're on the dashboard
         Assertions.assertTrue(dashboardPage.isDashboardDisplayed(), "Dashboard should be displayed");
     }
@@ -30,7 +47,7 @@ public class EmployeeManagementTest {
     @DisplayName("Scenario 1: Add Employee")
     void addEmployeeScenario() {
         // GIVEN an Employer AND I am on the Benefits Dashboard page
-        int initialEmployeeCount = dashboardPage.getEmployeeCount();
+        int initialEmployeeCount = ownEmployeeCount();
         
         // WHEN I select Add Employee
         dashboardPage.clickAddEmployee();
@@ -38,7 +55,7 @@ public class EmployeeManagementTest {
         
         // THEN I should be able to enter employee details
         String firstName = "John";
-        String lastName = "Doe";
+        String lastName = TestNamespace.name("Doe");
         String dependants = "2";
         
         dashboardPage.fillEmployeeForm(firstName, lastName, dependants);
@@ -49,18 +66,19 @@ public class EmployeeManagementTest {
         // AND I should see the employee in the table
         Assertions.assertTrue(dashboardPage.isEmployeeInTable(firstName, lastName), 
             "Employee should appear in the table");
+
+        // Cleanup - the API deletes the created employee even if an assertion below fails
+        dashboardPage.getTableSnapshot().findByName(firstName, lastName)
+            .ifPresent(row -> fixtures.adopt(row.getId()));
         
         // Verify employee count increased
-        int newEmployeeCount = dashboardPage.getEmployeeCount();
+        int newEmployeeCount = ownEmployeeCount();
         Assertions.assertEquals(initialEmployeeCount + 1, newEmployeeCount, 
             "Employee count should increase by 1");
         
         // AND the benefit cost calculations are correct
         // Note: This would require additional methods to verify specific calculations
         // For now, we verify the employee appears which indicates calculations were done
-        
-        // Cleanup - delete the created employee
-        dashboardPage.deleteEmployee(firstName, lastName);
     }
 
     @Test
@@ -69,10 +87,10 @@ public class EmployeeManagementTest {
         // GIVEN an Employer AND I am on the Benefits Dashboard page
         // First, create an employee to edit
         String originalFirstName = "Jane";
-        String originalLastName = "Smith";
-        String originalDependants = "1";
+        String originalLastName = TestNamespace.name("Smith");
         
-        dashboardPage.addEmployee(originalFirstName, originalLastName, originalDependants);
+        fixtures.seed(originalFirstName, originalLastName, 1);
+        dashboardPage.reload();
         Assertions.assertTrue(dashboardPage.isEmployeeInTable(originalFirstName, originalLastName),
             "Employee should be created first");
         
@@ -82,7 +100,7 @@ public class EmployeeManagementTest {
         
         // THEN I can edit employee details
         String newFirstName = "Janet";
-        String newLastName = "Johnson";
+        String newLastName = TestNamespace.name("Johnson");
         String newDependants = "3";
         
         dashboardPage.fillEmployeeForm(newFirstName, newLastName, newDependants);
@@ -93,9 +111,6 @@ public class EmployeeManagementTest {
             "Updated employee should appear in the table");
         Assertions.assertFalse(dashboardPage.isEmployeeInTable(originalFirstName, originalLastName),
             "Original employee should no longer be in the table");
-        
-        // Cleanup - delete the updated employee
-        dashboardPage.deleteEmployee(newFirstName, newLastName);
     }
 
     @Test
@@ -104,15 +119,15 @@ public class EmployeeManagementTest {
         // GIVEN an Employer AND I am on the Benefits Dashboard page
         // First, create an employee to delete
         String firstName = "Bob";
-        String lastName = "Wilson";
-        String dependants = "0";
+        String lastName = TestNamespace.name("Wilson");
         
-        int initialEmployeeCount = dashboardPage.getEmployeeCount();
-        dashboardPage.addEmployee(firstName, lastName, dependants);
+        int initialEmployeeCount = ownEmployeeCount();
+        fixtures.seed(firstName, lastName, 0);
+        dashboardPage.reload();
         
         Assertions.assertTrue(dashboardPage.isEmployeeInTable(firstName, lastName),
             "Employee should be created first");
-        Assertions.assertEquals(initialEmployeeCount + 1, dashboardPage.getEmployeeCount(),
+        Assertions.assertEquals(initialEmployeeCount + 1, ownEmployeeCount(),
             "Employee count should increase after creation");
         
         // WHEN I click the Action X
@@ -124,52 +139,98 @@ public class EmployeeManagementTest {
         // THEN the employee should be deleted
         Assertions.assertFalse(dashboardPage.isEmployeeInTable(firstName, lastName),
             "Employee should no longer be in the table");
-        Assertions.assertEquals(initialEmployeeCount, dashboardPage.getEmployeeCount(),
+        Assertions.assertEquals(initialEmployeeCount, ownEmployeeCount(),
             "Employee count should return to original value");
     }
 
     @Test
     @DisplayName("Verify Benefits Calculation - Employee with no dependents")
     void verifyBenefitsCalculationNoDependents() {
-        String firstName = "TestCalc";
-        String lastName = "NoDeps";
-        String dependants = "0";
-        
-        dashboardPage.addEmployee(firstName, lastName, dependants);
-        Assertions.assertTrue(dashboardPage.isEmployeeInTable(firstName, lastName),
+        Employee employee = fixtures.seed("TestCalc", TestNamespace.name("NoDeps"), 0);
+        dashboardPage.reload();
+        Assertions.assertTrue(dashboardPage.isEmployeeInTable(employee.getFirstName(), employee.getLastName()),
             "Employee should be created for calculation test");
         
         // Expected calculation: $1000/year for employee ÷ 26 paychecks = $38.46 per paycheck
         // Net should be $2000 - $38.46 = $1961.54
-        // Note: Actual verification would need additional methods to get specific values from table
-        
-        // Cleanup
-        dashboardPage.deleteEmployee(firstName, lastName);
+        assertRowBenefits(employee, "38.46", "1961.54");
     }
 
     @Test
     @DisplayName("Verify Benefits Calculation - Employee with dependents")
     void verifyBenefitsCalculationWithDependents() {
-        String firstName = "TestCalc";
-        String lastName = "WithDeps";
-        String dependants = "2";
-        
-        dashboardPage.addEmployee(firstName, lastName, dependants);
-        Assertions.assertTrue(dashboardPage.isEmployeeInTable(firstName, lastName),
+        Employee employee = fixtures.seed("TestCalc", TestNamespace.name("WithDeps"), 2);
+        dashboardPage.reload();
+        Assertions.assertTrue(dashboardPage.isEmployeeInTable(employee.getFirstName(), employee.getLastName()),
             "Employee should be created for calculation test");
         
         // Expected calculation: 
         // Employee: $1000/year + Dependents: 2 × $500/year = $2000/year
         // Per paycheck: $2000 ÷ 26 = $76.92
         // Net: $2000 - $76.92 = $1923.08
-        // Note: Actual verification would need additional methods to get specific values from table
-        
-        // Cleanup
-        dashboardPage.deleteEmployee(firstName, lastName);
+        assertRowBenefits(employee, "76.92", "1923.08");
+    }
+
+    @Test
+    @DisplayName("Verify Benefits Calculation - every employee in the table")
+    void verifyBenefitsCalculationForWholeTable() {
+        fixtures.seed(0, 1, 2, 3, 4, 5);
+        dashboardPage.reload();
+
+        Verification verification = BenefitsEngine.STANDARD.verify(dashboardPage.getTableSnapshot().toPayrollBatch());
+        Assertions.assertTrue(verification.isClean(), verification.toString());
+    }
+
+    @Test
+    @DisplayName("Bulk add and delete from the page context")
+    void bulkAddAndDeleteEmployees() {
+        List<Employee> drafts = List.of(
+            Employee.draft("Bulk", TestNamespace.name("B1"), 0),
+            Employee.draft("Bulk", TestNamespace.name("B2"), 1),
+            Employee.draft("Bulk", TestNamespace.name("B3"), 4));
+
+        BulkResult added = dashboardPage.addEmployees(drafts);
+        // Cleanup through the API whatever happens below
+        added.getIds().forEach(fixtures::adopt);
+        Assertions.assertTrue(added.isComplete(), added.toString());
+
+        TableSnapshot table = dashboardPage.getTableSnapshot();
+        for (String id : added.getIds()) {
+            Assertions.assertTrue(table.findById(id).isPresent(), "Employee " + id + " should be in the table");
+        }
+
+        BulkResult deleted = dashboardPage.deleteEmployees(row -> added.getIds().contains(row.getId()));
+        Assertions.assertTrue(deleted.isComplete(), deleted.toString());
+        // Deleted in table order, which is neither the order of the requests nor stable across tenants
+        Assertions.assertEquals(new HashSet<>(added.getIds()), new HashSet<>(deleted.getIds()), "Exactly the added employees should be deleted");
+        Assertions.assertEquals(added.getIds().size(), deleted.getIds().size(), "Each employee should be deleted once");
+        deleted.getIds().forEach(fixtures::release);
+
+        table = dashboardPage.getTableSnapshot();
+        for (String id : added.getIds()) {
+            Assertions.assertFalse(table.findById(id).isPresent(), "Employee " + id + " should be gone from the table");
+        }
+    }
+
+    // Other workers add and delete rows in the same table at the same time
+    private int ownEmployeeCount() {
+        return dashboardPage.getEmployeeCount(row -> TestNamespace.isOwn(row.getLastName()));
+    }
+
+    private void assertRowBenefits(Employee employee, String benefitsCost, String netPay) {
+        TableSnapshot.Row row = dashboardPage.getTableSnapshot().findById(employee.getId())
+            .orElseThrow(() -> new AssertionError("Employee " + employee + " is not in the table"));
+        Assertions.assertEquals(new BigDecimal(benefitsCost), row.getBenefitsCost(), "Benefits cost per paycheck");
+        Assertions.assertEquals(new BigDecimal(netPay), row.getNetPay(), "Net pay per paycheck");
+
+        Verification verification = BenefitsEngine.STANDARD.verify(Employee.toPayrollBatch(List.of(employee)));
+        Assertions.assertTrue(verification.isClean(), "API values: " + verification);
     }
 
     @AfterEach
     void tearDown() {
-        DriverManager.quitDriver();
+        // Removes every seeded or adopted employee, whether or not the test passed; the browser session
+        // is reset or recycled afterwards by BrowserSessionExtension
+        fixtures.close();
     }
-}
\ No newline at end of file
+}
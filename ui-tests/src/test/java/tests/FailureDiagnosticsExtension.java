@@ -0,0 +1,57 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import utils.DriverManager;
+import utils.FailureDiagnostics;
+import utils.FlightEvents;
+
+// Tags the Flight Recorder events of each test with its name, and captures the browser state the moment a
+// test (or its @BeforeEach) fails, before BrowserSessionExtension resets or recycles the session.
+// The capture is written in the background by FailureDiagnostics; the failure is rethrown unchanged.
+public class FailureDiagnosticsExtension implements BeforeEachCallback, AfterEachCallback,
+        TestExecutionExceptionHandler, LifecycleMethodExecutionExceptionHandler {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        FlightEvents.startTest(testName(context));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        FlightEvents.finishTest();
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        capture(context, throwable);
+        throw throwable;
+    }
+
+    @Override
+    public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        capture(context, throwable);
+        throw throwable;
+    }
+
+    private static void capture(ExtensionContext context, Throwable failure) {
+        if (!FailureDiagnostics.isEnabled()) {
+            return;
+        }
+        DriverManager.getCurrentDriver().ifPresent(driver -> {
+            try {
+                FailureDiagnostics.capture(driver, testName(context), context.getUniqueId(), DriverManager.getBrowser(), failure);
+            } catch (RuntimeException e) {
+                // Never hide the test's own failure behind a diagnostics problem
+                failure.addSuppressed(e);
+            }
+        });
+    }
+
+    private static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName();
+    }
+}
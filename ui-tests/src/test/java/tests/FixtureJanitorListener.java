@@ -0,0 +1,21 @@
+package tests;
+
+import api.OrphanJanitor;
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Sweeps employees left behind by earlier runs in the background while test classes are discovered
+// (api.janitor=false turns this off). Discovery starts after every LauncherSessionListener has run, so
+// the sweep goes to the stub server when stub.server=true, whichever jar's listener is loaded first.
+public class FixtureJanitorListener implements LauncherDiscoveryListener {
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Override
+    public void launcherDiscoveryStarted(LauncherDiscoveryRequest request) {
+        if (started.compareAndSet(false, true)) {
+            OrphanJanitor.start();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package tests;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import utils.PageTelemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Scopes page telemetry samples to the running test and fails it when a sample broke one of its
+// @PerformanceBudget limits. Registered for every test through extension auto-detection.
+public class PageTelemetryExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        PageTelemetry.startTest(context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        List<PageTelemetry.Sample> samples = PageTelemetry.finishTest();
+        if (samples.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        List<PerformanceBudget> budgets = new ArrayList<>(
+                AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestClass(), PerformanceBudget.class));
+        budgets.addAll(AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestMethod(), PerformanceBudget.class));
+
+        List<String> exceeded = new ArrayList<>();
+        for (PerformanceBudget budget : budgets) {
+            for (PageTelemetry.Sample sample : samples) {
+                Double value = sample.getName().equals(budget.sample()) ? sample.getMetric(budget.metric()) : null;
+                if (value != null && value > budget.max()) {
+                    exceeded.add(budget.sample() + " " + budget.metric() + " was " + Math.round(value)
+                            + " (budget " + Math.round(budget.max()) + ")");
+                }
+            }
+        }
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("Performance budget exceeded in " + context.getRequiredTestClass().getName() + "."
+                    + context.getRequiredTestMethod().getName() + ":\n  "
+                    + String.join("\n  ", exceeded));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package tests;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Upper bound for a page telemetry metric, checked by PageTelemetryExtension after each test, e.g.
+//     @PerformanceBudget(sample = "DashboardPage.load", max = 800)    (table populated within 800 ms)
+// Applies to every sample of that name in the test; metric names as in PageTelemetry.Sample.getMetric().
+// Tests against the live deployment measure its network and tenant size as much as the page; see
+// DashboardLoadPerformanceTest for a budget kept to the stub server.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Repeatable(PerformanceBudget.List.class)
+public @interface PerformanceBudget {
+    String sample();
+
+    String metric() default "durationMs";
+
+    double max();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.TYPE})
+    @interface List {
+        PerformanceBudget[] value();
+    }
+}
@@ -0,0 +1,44 @@
+package tests;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+import utils.DriverManager;
+
+// One JUnit worker per browser session DriverManager can hold: a core each locally, a slot each on a
+// Selenium Grid (driver.remote), so test classes are handed to workers as fast as sessions free up and
+// adding grid nodes adds workers. driver.pool.size overrides both.
+public class SessionCapacityParallelism implements ParallelExecutionConfigurationStrategy {
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = DriverManager.getPoolSize();
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMinimumRunnable() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMaxPoolSize() {
+                // Same headroom as JUnit's own strategies, for workers blocked in nested parallel tests
+                return parallelism + 256;
+            }
+
+            @Override
+            public int getCorePoolSize() {
+                return parallelism;
+            }
+
+            @Override
+            public int getKeepAliveSeconds() {
+                return 30;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package tests;
+
+import benefits.BenefitsEngine;
+import benefits.Verification;
+import org.junit.jupiter.api.*;
+import pages.TableSnapshot;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TableSnapshotTest {
+
+    private static List<String> row(String id, String firstName, String lastName, String dependants) {
+        return List.of(id, firstName, lastName, dependants, "52000.00", "2000.00", "38.46", "1961.54", "");
+    }
+
+    @Test
+    @DisplayName("Snapshot indexes rows by id and by name")
+    void indexesRowsByIdAndName() {
+        TableSnapshot snapshot = TableSnapshot.of(List.of(
+                row("a1", "John", "Doe", "0"),
+                row("b2", "Jane", "Smith", "2")));
+
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertTrue(snapshot.contains("Jane", "Smith"));
+        Assertions.assertFalse(snapshot.contains("Jane", "Doe"));
+        Assertions.assertEquals("John", snapshot.findById("a1").orElseThrow().getFirstName());
+        Assertions.assertEquals(1, snapshot.findByName("Jane", "Smith").orElseThrow().getIndex());
+    }
+
+    @Test
+    @DisplayName("Snapshot parses numeric columns")
+    void parsesNumericColumns() {
+        TableSnapshot.Row row = TableSnapshot.of(List.of(
+                List.of("a1", "John", "Doe", "2", "$52,000.00", "2000.00", "76.92", "1923.08", "")))
+                .getRows().get(0);
+
+        Assertions.assertEquals(2, row.getDependants());
+        Assertions.assertEquals(new BigDecimal("52000.00"), row.getSalary());
+        Assertions.assertEquals(new BigDecimal("2000.00"), row.getGrossPay());
+        Assertions.assertEquals(new BigDecimal("76.92"), row.getBenefitsCost());
+        Assertions.assertEquals(new BigDecimal("1923.08"), row.getNetPay());
+    }
+
+    @Test
+    @DisplayName("Placeholder row is not counted as an employee")
+    void skipsPlaceholderRow() {
+        TableSnapshot snapshot = TableSnapshot.of(List.of(List.of("No employees found")));
+
+        Assertions.assertEquals(0, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("Snapshot rows are checked against the reference benefits engine")
+    void verifiesBenefitsOfAllRows() {
+        TableSnapshot snapshot = TableSnapshot.of(List.of(
+                row("a1", "John", "Doe", "0"),
+                List.of("b2", "Jane", "Smith", "2", "52000.00", "2000.00", "76.92", "1923.08", ""),
+                List.of("c3", "Max", "Wrong", "1", "52000.00", "2000.00", "38.46", "1961.54", "")));
+
+        Verification verification = BenefitsEngine.STANDARD.verify(snapshot.toPayrollBatch());
+
+        Assertions.assertEquals(2, verification.getMismatches(), verification.toString());
+        Assertions.assertEquals("c3", verification.getSamples().get(0).getId());
+    }
+}